@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Measures cold start of the backend: time from JVM launch to the first successful API response, and the resident
+# set size at that moment. Compares the plain build against the prod profile (AOT + lazy init) with and without a
+# class-data-sharing archive.
+#
+# usage: scripts/startup-benchmark.sh [runs] [-- application arguments]
+#   e.g. scripts/startup-benchmark.sh 10 -- --spring.datasource.url=jdbc:mysql://db:3306/timetable_db
+# Build first with: mvn -Pprod package
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+shift || true
+[ "${1:-}" = "--" ] && shift
+APP_ARGS=("$@")
+
+PORT=${PORT:-18080}
+FIRST_REQUEST=${FIRST_REQUEST:-/api/reference-data}
+LABEL=${LABEL:-local}
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -1)
+WORK=target/startup
+APP=$WORK/app
+
+# CDS only archives classes loaded from jar files on a plain class path, so unpack the fat jar into one
+rm -rf "$APP" && mkdir -p "$APP/unpacked" "$APP/lib"
+(cd "$APP/unpacked" && jar xf "../../../../$JAR")
+mv "$APP"/unpacked/BOOT-INF/lib/*.jar "$APP/lib/"
+jar cf "$APP/application.jar" -C "$APP/unpacked/BOOT-INF/classes" .
+rm -rf "$APP/unpacked"
+CLASSPATH_JARS="$APP/application.jar:$(ls "$APP"/lib/*.jar | sort | paste -sd: -)"
+MAIN=com.timetable.TimetableBackendApplication
+PROD=(-Dspring.aot.enabled=true -Dspring.profiles.active=prod)
+
+echo "Training CDS archive"
+java -XX:ArchiveClassesAtExit="$APP/application.jsa" -Dspring.context.exit=onRefresh "${PROD[@]}" \
+    -cp "$CLASSPATH_JARS" $MAIN --server.port=0 "${APP_ARGS[@]}" > "$WORK/training.log" 2>&1
+
+now_ms() {
+    python3 -c 'import time; print(int(time.time() * 1000))'
+}
+
+# Prints "<milliseconds to first response> <rss kB>" for one cold start
+measure() {
+    local log=$WORK/run.log start pid elapsed rss
+    start=$(now_ms)
+    java "$@" -cp "$CLASSPATH_JARS" $MAIN --server.port=$PORT "${APP_ARGS[@]}" > "$log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT$FIRST_REQUEST"; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "backend exited before answering, see $log" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(ps -o rss= -p $pid | tr -d ' ')
+    kill $pid && wait $pid 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+REPORT=$WORK/startup-report-$LABEL.csv
+echo "variant,run,first_request_ms,rss_kb" > "$REPORT"
+run_variant() {
+    local name=$1 run result
+    shift
+    for run in $(seq 1 "$RUNS"); do
+        result=$(measure "$@")
+        echo "$name,$run,${result// /,}" >> "$REPORT"
+    done
+}
+
+run_variant baseline
+run_variant prod "${PROD[@]}"
+run_variant prod-cds "${PROD[@]}" -XX:SharedArchiveFile="$APP/application.jsa" -Xshare:auto
+
+# Medians per variant
+echo
+printf '%-10s %18s %12s\n' variant first_request_ms rss_kb
+for variant in baseline prod prod-cds; do
+    grep "^$variant," "$REPORT" | python3 -c '
+import sys, statistics
+rows = [line.strip().split(",") for line in sys.stdin]
+print("%-10s %18d %12d" % (rows[0][0], statistics.median(int(r[2]) for r in rows), statistics.median(int(r[3]) for r in rows)))'
+done
+echo
+echo "Raw measurements in $REPORT"
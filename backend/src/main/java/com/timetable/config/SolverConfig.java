@@ -0,0 +1,24 @@
+package com.timetable.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SolverConfig {
+
+    // Solves run here rather than on request threads, so an abandoned request can be cancelled. SolverAdmission
+    // keeps at most one solve per thread in flight and does the queueing; the executor queue only covers the
+    // hand-off from a finishing solve to the next one.
+    @Bean
+    public ThreadPoolTaskExecutor solverExecutor(@Value("${timetable.solver.threads:0}") int threads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(size);
+        executor.setThreadNamePrefix("solver-");
+        return executor;
+    }
+}
@@ -0,0 +1,17 @@
+package com.timetable.config;
+
+import com.timetable.service.GenerationWorker;
+import com.timetable.service.TimetablePublisher;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfig {
+
+    // @Scheduled methods are only registered once their bean exists, so these must not wait for a first use
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(TimetablePublisher.class, GenerationWorker.class);
+    }
+}
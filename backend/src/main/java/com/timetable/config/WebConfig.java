@@ -1,5 +1,6 @@
 package com.timetable.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -7,12 +8,21 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Value("${spring.web.cors.allowed-origins}")
+    private String[] allowedOrigins;
+
+    @Value("${spring.web.cors.allowed-methods}")
+    private String[] allowedMethods;
+
+    @Value("${spring.web.cors.allowed-headers}")
+    private String[] allowedHeaders;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Apply CORS to all /api endpoints
-                .allowedOrigins("http://localhost:3000") // Allow requests from your React app's origin
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allowed HTTP methods
-                .allowedHeaders("*") // Allow all headers
+                .allowedOrigins(allowedOrigins) // Static frontend and React app origins
+                .allowedMethods(allowedMethods)
+                .allowedHeaders(allowedHeaders)
                 .allowCredentials(true); // Allow credentials (e.g., cookies, authorization headers)
     }
-} 
\ No newline at end of file
+}
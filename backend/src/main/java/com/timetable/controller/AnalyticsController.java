@@ -0,0 +1,20 @@
+package com.timetable.controller;
+
+import com.timetable.service.UtilizationAnalytics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    @Autowired
+    private UtilizationAnalytics utilizationAnalytics;
+
+    // Room occupancy and seat fill, faculty weekly load and per-day spread, and idle rooms/faculty per day x period
+    @GetMapping("/utilization")
+    public ResponseEntity<Map<String, Object>> getUtilization() {
+        return ResponseEntity.ok(utilizationAnalytics.report());
+    }
+}
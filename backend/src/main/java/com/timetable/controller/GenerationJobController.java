@@ -0,0 +1,32 @@
+package com.timetable.controller;
+
+import com.timetable.dto.GenerationRequest;
+import com.timetable.service.GenerationJobService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/generation-jobs")
+public class GenerationJobController {
+    @Autowired
+    private GenerationJobService generationJobService;
+
+    // Queued for any instance running with timetable.worker.enabled=true; poll the returned job for the outcome
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(@Valid @RequestBody GenerationRequest request,
+                                                      @RequestParam(required = false) Long timeBudgetMs,
+                                                      @RequestParam(defaultValue = "false") boolean persistPartial) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(generationJobService.enqueue(request, timeBudgetMs, persistPartial));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> get(@PathVariable Long jobId) {
+        return generationJobService.find(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
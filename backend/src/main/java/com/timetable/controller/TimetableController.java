@@ -1,32 +1,186 @@
 package com.timetable.controller;
 
-import com.timetable.model.Timetable;
+import com.timetable.dto.GenerationRequest;
+import com.timetable.model.TimetableReadRow;
+import com.timetable.service.GenerationProgress;
+import com.timetable.service.GenerationRuns;
+import com.timetable.service.OccupancyIndex;
+import com.timetable.service.SolveControl;
+import com.timetable.service.SolverAdmission;
+import com.timetable.service.TimetableGridViews;
+import com.timetable.service.TimetableGridViews.GridView;
+import com.timetable.service.TimetableReadModel;
 import com.timetable.service.TimetableService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
 import java.util.Map;
-import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api")
 public class TimetableController {
+    // Time left after the budget runs out for the solver to notice and hand back its partial schedule
+    private static final long RESPONSE_GRACE_MS = 5_000;
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+
     @Autowired
     private TimetableService timetableService;
+
+    @Autowired
+    private SolverAdmission solverAdmission;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private GenerationProgress generationProgress;
+
+    @Autowired
+    private GenerationRuns generationRuns;
+
+    @Autowired
+    private TimetableGridViews timetableGridViews;
+
+    @Autowired
+    private TimetableReadModel timetableReadModel;
     
     @GetMapping("/reference-data")
     public ResponseEntity<Map<String, List<?>>> getReferenceData() {
         return ResponseEntity.ok(timetableService.getReferenceData());
     }
     
+    // Solved off the request thread: if the request times out or the client cancels the run by its runId, the solve
+    // stops and whatever was scheduled so far comes back flagged as partial
     @PostMapping("/generate-timetable")
-    public ResponseEntity<Map<String, Object>> generateTimetable(@RequestBody List<Map<String, Object>> subjects) {
-        return timetableService.generateTimetable(subjects);
+    public DeferredResult<ResponseEntity<Map<String, Object>>> generateTimetable(@RequestBody List<Map<String, Object>> subjects,
+                                                                                 @RequestParam(required = false) Long timeBudgetMs,
+                                                                                 @RequestParam(defaultValue = "false") boolean persistPartial,
+                                                                                 @RequestParam(required = false) String runId,
+                                                                                 @RequestHeader(name = TENANT_HEADER, required = false) String tenantId,
+                                                                                 HttpServletRequest httpRequest) {
+        return solveAsync(tenant(tenantId, httpRequest), timeBudgetMs, runId, control -> timetableService.generateTimetable(subjects, control, persistPartial));
+    }
+
+    // Typed schema: one validated record per subject-section with its weekly lecture count
+    @PostMapping("/v2/generate-timetable")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> generateTimetable(@Valid @RequestBody GenerationRequest request,
+                                                                                 @RequestParam(required = false) Long timeBudgetMs,
+                                                                                 @RequestParam(defaultValue = "false") boolean persistPartial,
+                                                                                 @RequestParam(required = false) String runId,
+                                                                                 @RequestHeader(name = TENANT_HEADER, required = false) String tenantId,
+                                                                                 HttpServletRequest httpRequest) {
+        return solveAsync(tenant(tenantId, httpRequest), timeBudgetMs, runId, control -> timetableService.generateTimetable(request, control, persistPartial));
+    }
+
+    // Solves are queued fairly per tenant; callers without a tenant id are told apart by address
+    private String tenant(String tenantId, HttpServletRequest httpRequest) {
+        return tenantId != null && !tenantId.isBlank() ? tenantId : httpRequest.getRemoteAddr();
+    }
+
+    private DeferredResult<ResponseEntity<Map<String, Object>>> solveAsync(String tenant, Long timeBudgetMs, String runId,
+                                                                          Function<SolveControl, ResponseEntity<Map<String, Object>>> generation) {
+        SolveControl control = timetableService.newSolveControl(timeBudgetMs, runId);
+        DeferredResult<ResponseEntity<Map<String, Object>>> deferred = new DeferredResult<>(control.remainingMillis() + RESPONSE_GRACE_MS);
+        deferred.onTimeout(control::cancel);
+        deferred.onError(error -> control.cancel());
+        generationRuns.register(control);
+        try {
+            solverAdmission.submit(tenant, () -> {
+                try {
+                    // Cancelled while waiting for a slot: the client timed out or gave up, don't solve for nobody
+                    if (SolveControl.CANCELLED.equals(control.stopReason())) {
+                        deferred.setResult(ResponseEntity.ok(Map.of("partial", true, "persisted", false,
+                            "stopReason", SolveControl.CANCELLED, "timetable", List.of(), "skippedSlots", List.of())));
+                        return;
+                    }
+                    deferred.setResult(generation.apply(control));
+                } catch (RuntimeException e) {
+                    deferred.setErrorResult(e);
+                } finally {
+                    generationRuns.finished(control);
+                }
+            });
+        } catch (SolverAdmission.RejectedException e) {
+            generationRuns.finished(control);
+            deferred.setResult(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.retryAfterSeconds()))
+                .body(Map.of("error", e.getMessage(), "retryAfterSeconds", e.retryAfterSeconds())));
+        }
+        return deferred;
     }
     
+    // Published timetable from the read model, one row per section per lecture hour; each filter is an index lookup
     @GetMapping("/timetable")
-    public ResponseEntity<List<Map<String, Object>>> getTimetable() {
-        return ResponseEntity.ok(Collections.emptyList()); 
+    public ResponseEntity<List<TimetableReadRow>> getTimetable(@RequestParam(required = false) Long sectionId,
+                                                               @RequestParam(required = false) Long facultyId,
+                                                               @RequestParam(required = false) Long roomId) {
+        if (sectionId != null) {
+            return ResponseEntity.ok(timetableReadModel.forSection(sectionId));
+        }
+        if (facultyId != null) {
+            return ResponseEntity.ok(timetableReadModel.forFaculty(facultyId));
+        }
+        if (roomId != null) {
+            return ResponseEntity.ok(timetableReadModel.forRoom(roomId));
+        }
+        return ResponseEntity.ok(timetableReadModel.all());
+    }
+
+    // Progress of a generation run; subscribe before posting the run with the same runId
+    @GetMapping(path = "/generation-runs/{runId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGenerationProgress(@PathVariable String runId) {
+        return generationProgress.subscribe(runId);
+    }
+
+    // Stops a queued or running generation; the generate request then returns what was scheduled so far
+    @DeleteMapping("/generation-runs/{runId}")
+    public ResponseEntity<Void> cancelGenerationRun(@PathVariable String runId) {
+        return generationRuns.cancel(runId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    // Answers "what would clash if this lecture sat here" from the in-memory occupancy of the published timetable
+    @GetMapping("/conflicts")
+    public ResponseEntity<Map<String, Object>> checkConflicts(@RequestParam List<Long> timeslotIds,
+                                                              @RequestParam(required = false) Long facultyId,
+                                                              @RequestParam(required = false) Long roomId,
+                                                              @RequestParam(required = false) List<Long> sectionIds,
+                                                              @RequestParam(required = false) Long excludeTimetableId) {
+        return ResponseEntity.ok(occupancyIndex.check(timeslotIds, facultyId, roomId, sectionIds, excludeTimetableId));
+    }
+
+    // Ready-to-render day x period grids of the published run; the run id doubles as the ETag
+    @GetMapping("/timetable/grid/sections")
+    public ResponseEntity<List<GridView>> getAllSectionGrids() {
+        return ResponseEntity.ok().eTag(timetableGridViews.currentRunId()).body(timetableGridViews.allSections());
+    }
+
+    @GetMapping("/timetable/grid/sections/{sectionId}")
+    public ResponseEntity<GridView> getSectionGrid(@PathVariable Long sectionId) {
+        return gridResponse(timetableGridViews.section(sectionId));
+    }
+
+    @GetMapping("/timetable/grid/faculty/{facultyId}")
+    public ResponseEntity<GridView> getFacultyGrid(@PathVariable Long facultyId) {
+        return gridResponse(timetableGridViews.faculty(facultyId));
+    }
+
+    @GetMapping("/timetable/grid/rooms/{roomId}")
+    public ResponseEntity<GridView> getRoomGrid(@PathVariable Long roomId) {
+        return gridResponse(timetableGridViews.room(roomId));
+    }
+
+    private ResponseEntity<GridView> gridResponse(Optional<GridView> grid) {
+        return grid.map(g -> ResponseEntity.ok().eTag(g.runId()).body(g))
+                   .orElse(ResponseEntity.notFound().build());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.timetable.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record GenerationRequest(@NotEmpty List<@Valid SubjectDemand> subjects) {
+}
@@ -0,0 +1,16 @@
+package com.timetable.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+// Weekly demand of one subject for one section: lecturesPerWeek lectures of duration consecutive slots each
+public record SubjectDemand(
+    @NotBlank String subjectName,
+    @NotNull Long sectionId,
+    @Min(1) int duration,
+    @Min(1) int lecturesPerWeek,
+    @NotEmpty long[] facultyIds
+) {
+}
@@ -0,0 +1,59 @@
+package com.timetable.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(name = "generation_job", indexes = @Index(name = "idx_generation_job_status", columnList = "status, lease_expires_at"))
+@NoArgsConstructor
+public class GenerationJob {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String status;
+
+    // GenerationRequest as JSON
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String request;
+
+    @Column(name = "time_budget_ms")
+    private Long timeBudgetMs;
+
+    @Column(name = "persist_partial", nullable = false)
+    private boolean persistPartial;
+
+    // Worker currently holding the lease
+    private String owner;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // Summary of the generation outcome as JSON
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String result;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
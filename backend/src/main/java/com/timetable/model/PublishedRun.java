@@ -0,0 +1,30 @@
+package com.timetable.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.Instant;
+
+// Single row describing the timetable currently in the timetable table, shared by every backend instance
+@Data
+@Entity
+@Table(name = "published_run")
+@NoArgsConstructor
+@AllArgsConstructor
+public class PublishedRun {
+    public static final Long CURRENT = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private String runId;
+
+    // Input fingerprint of the run, null when it was published from a partial solve
+    private String fingerprint;
+
+    @Column(name = "published_at", nullable = false)
+    private Instant publishedAt;
+}
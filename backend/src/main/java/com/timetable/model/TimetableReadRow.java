@@ -0,0 +1,89 @@
+package com.timetable.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalTime;
+
+// Read model of the published timetable: one row per section per lecture hour with faculty, room and timeslot
+// inlined, so reads are single-table index lookups. Written only by the publish transaction.
+@Data
+@Entity
+@Table(name = "timetable_read_model", indexes = {
+    @Index(name = "idx_read_model_section", columnList = "section_id, day_index, start_time"),
+    @Index(name = "idx_read_model_faculty", columnList = "faculty_id, day_index, start_time"),
+    @Index(name = "idx_read_model_room", columnList = "room_id, day_index, start_time")
+})
+@IdClass(TimetableReadRow.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimetableReadRow {
+    @Id
+    @Column(name = "timetable_id")
+    private Long timetableId;
+
+    @Id
+    @Column(name = "section_id")
+    private Long sectionId;
+
+    @Column(name = "section_name", nullable = false)
+    private String sectionName;
+
+    @Column(name = "student_count", nullable = false)
+    private Integer studentCount;
+
+    @Column(name = "subject_name", nullable = false)
+    private String subjectName;
+
+    // Names of every section attending, more than one for a combined lecture
+    @Column(name = "sections_label", nullable = false, length = 1000)
+    private String sectionsLabel;
+
+    @Column(name = "faculty_id", nullable = false)
+    private Long facultyId;
+
+    @Column(name = "faculty_name", nullable = false)
+    private String facultyName;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(name = "room_number", nullable = false)
+    private String roomNumber;
+
+    @Column(name = "room_type", nullable = false)
+    private String roomType;
+
+    @Column(name = "room_capacity", nullable = false)
+    private Integer roomCapacity;
+
+    @Column(name = "timeslot_id", nullable = false)
+    private Long timeslotId;
+
+    @Column(nullable = false)
+    private String day;
+
+    // Position of the day in the week (Monday = 0), for ordering
+    @Column(name = "day_index", nullable = false)
+    private Integer dayIndex;
+
+    @Column(nullable = false)
+    private String period;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long timetableId;
+        private Long sectionId;
+    }
+}
@@ -0,0 +1,302 @@
+package com.timetable.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.timetable.model.Faculty;
+import com.timetable.model.Room;
+import com.timetable.model.Section;
+import com.timetable.model.Timeslot;
+import com.timetable.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+// End-to-end load run for the "perf" profile: seeds the embedded database with generated datasets of growing size,
+// drives the HTTP API with concurrent clients and writes a JSON report that can be diffed across commits.
+@Component
+@Profile("perf")
+public class PerformanceSuite implements ApplicationRunner {
+    private static final List<String> DAYS = List.of("Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday");
+    private static final int PERIODS_PER_DAY = 8;
+    private static final int SUBJECTS_PER_SECTION = 5;
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private SectionRepository sectionRepository;
+
+    @Autowired
+    private TimeslotRepository timeslotRepository;
+
+    @Autowired
+    private TimetableRepository timetableRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${timetable.perf.scales:1,2,4}")
+    private List<Integer> scales;
+
+    @Value("${timetable.perf.clients:8}")
+    private int clients;
+
+    @Value("${timetable.perf.requests-per-client:20}")
+    private int requestsPerClient;
+
+    @Value("${timetable.perf.report-dir:target/perf}")
+    private String reportDir;
+
+    @Value("${timetable.perf.label:local}")
+    private String label;
+
+    @Value("${timetable.perf.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        List<Map<String, Object>> datasets = new ArrayList<>();
+        for (int scale : scales) {
+            Map<String, Object> dataset = new LinkedHashMap<>(seed(scale));
+            List<Long> sectionIds = sectionRepository.findAll().stream().map(Section::getId).toList();
+            List<Long> facultyIds = facultyRepository.findAll().stream().map(Faculty::getId).toList();
+            List<Long> timeslotIds = timeslotRepository.findAll().stream().map(Timeslot::getId).toList();
+
+            List<Map<String, Object>> scenarios = new ArrayList<>();
+            scenarios.add(measure("reference-data", statistics, i -> get(baseUrl + "/api/reference-data")));
+            // Every request carries a distinct subject list so the result cache cannot short-circuit the solve
+            AtomicInteger generation = new AtomicInteger();
+            scenarios.add(measure("generate-timetable", statistics,
+                i -> post(baseUrl + "/api/generate-timetable", generateRequest(sectionIds, facultyIds, "run" + generation.incrementAndGet()))));
+            scenarios.add(measure("grid-all-sections", statistics, i -> get(baseUrl + "/api/timetable/grid/sections")));
+            scenarios.add(measure("conflict-check", statistics, i -> get(baseUrl + "/api/conflicts?timeslotIds=" + timeslotIds.get(i % timeslotIds.size())
+                + "&facultyId=" + facultyIds.get(i % facultyIds.size()) + "&sectionIds=" + sectionIds.get(i % sectionIds.size()))));
+            dataset.put("scenarios", scenarios);
+            datasets.add(dataset);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", label);
+        report.put("startedAt", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("clients", clients);
+        report.put("requestsPerClient", requestsPerClient);
+        report.put("datasets", datasets);
+        writeReport(report);
+
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private Map<String, Object> seed(int scale) {
+        timetableRepository.deleteAll();
+        facultyRepository.deleteAll();
+        roomRepository.deleteAll();
+        sectionRepository.deleteAll();
+        timeslotRepository.deleteAll();
+
+        int sectionCount = 4 * scale;
+        int facultyCount = 6 * scale;
+        List<Timeslot> timeslots = new ArrayList<>();
+        for (String day : DAYS) {
+            for (int p = 0; p < PERIODS_PER_DAY; p++) {
+                LocalTime start = LocalTime.of(9, 0).plusHours(p);
+                timeslots.add(new Timeslot(null, day, start, start.plusHours(1), "P" + (p + 1)));
+            }
+        }
+        timeslotRepository.saveAll(timeslots);
+
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 3 * scale; i++) {
+            rooms.add(new Room(null, "CR-" + (i + 1), "CR", 70));
+        }
+        for (int i = 0; i < scale; i++) {
+            rooms.add(new Room(null, "LT-" + (i + 1), "LT", 180));
+        }
+        roomRepository.saveAll(rooms);
+
+        List<Section> sections = new ArrayList<>();
+        for (int i = 0; i < sectionCount; i++) {
+            sections.add(new Section(null, "S" + (i + 1), 60));
+        }
+        sectionRepository.saveAll(sections);
+
+        List<Faculty> faculty = new ArrayList<>();
+        for (int i = 0; i < facultyCount; i++) {
+            faculty.add(new Faculty(null, "Faculty " + (i + 1), i % 3 == 0 ? "Monday,Wednesday,Friday" : null));
+        }
+        facultyRepository.saveAll(faculty);
+
+        Map<String, Object> dataset = new LinkedHashMap<>();
+        dataset.put("scale", scale);
+        dataset.put("sections", sectionCount);
+        dataset.put("faculty", facultyCount);
+        dataset.put("rooms", rooms.size());
+        dataset.put("timeslots", timeslots.size());
+        return dataset;
+    }
+
+    // Same shape the frontend posts: one entry per lecture unit
+    private List<Map<String, Object>> generateRequest(List<Long> sectionIds, List<Long> facultyIds, String variant) {
+        List<Map<String, Object>> units = new ArrayList<>();
+        for (int s = 0; s < sectionIds.size(); s++) {
+            for (int subject = 0; subject < SUBJECTS_PER_SECTION; subject++) {
+                int duration = subject == 0 ? 2 : 1;
+                int frequency = subject == 0 ? 1 : 3;
+                List<Long> subjectFaculty = List.of(facultyIds.get((s + subject) % facultyIds.size()),
+                    facultyIds.get((s + subject + 1) % facultyIds.size()));
+                for (int unit = 0; unit < frequency; unit++) {
+                    units.add(Map.of(
+                        "subjectName", "Subject " + subject + " " + variant,
+                        "facultyIds", subjectFaculty,
+                        "duration", duration,
+                        "frequency", frequency,
+                        "sectionId", sectionIds.get(s)));
+                }
+            }
+        }
+        return units;
+    }
+
+    private Map<String, Object> measure(String name, Statistics statistics, IntFunction<Integer> call) throws InterruptedException {
+        System.gc();
+        long queriesBefore = statistics.getPrepareStatementCount();
+        AtomicLong peakHeap = new AtomicLong(memory.getHeapMemoryUsage().getUsed());
+        AtomicInteger errors = new AtomicInteger();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sequence = new AtomicInteger();
+
+        for (int c = 0; c < clients; c++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int r = 0; r < requestsPerClient; r++) {
+                    long began = System.nanoTime();
+                    int status = call.apply(sequence.getAndIncrement());
+                    latencies.add(System.nanoTime() - began);
+                    if (status < 200 || status >= 300) {
+                        errors.incrementAndGet();
+                    }
+                    peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        double elapsedSeconds = (System.nanoTime() - began) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long queries = statistics.getPrepareStatementCount() - queriesBefore;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("requests", sorted.length);
+        result.put("errors", errors.get());
+        result.put("p50Ms", percentileMillis(sorted, 0.50));
+        result.put("p90Ms", percentileMillis(sorted, 0.90));
+        result.put("p99Ms", percentileMillis(sorted, 0.99));
+        result.put("maxMs", sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        result.put("throughputPerSec", sorted.length / elapsedSeconds);
+        result.put("queries", queries);
+        result.put("queriesPerRequest", sorted.length == 0 ? 0 : (double) queries / sorted.length);
+        result.put("heapPeakMb", peakHeap.get() / (1024.0 * 1024.0));
+        return result;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private int get(String url) {
+        return send(HttpRequest.newBuilder(URI.create(url)).GET().build());
+    }
+
+    private int post(String url, Object body) {
+        try {
+            return send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build());
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            // Read the whole body so serialization cost is part of the measured latency
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private void writeReport(Map<String, Object> report) throws IOException {
+        Path dir = Path.of(reportDir);
+        Files.createDirectories(dir);
+        byte[] json = objectMapper.writeValueAsBytes(report);
+        Files.write(dir.resolve("perf-report-" + label + ".json"), json);
+        Files.write(dir.resolve("perf-report.json"), json);
+        System.out.println("Performance report written to " + dir.resolve("perf-report-" + label + ".json").toAbsolutePath());
+    }
+}
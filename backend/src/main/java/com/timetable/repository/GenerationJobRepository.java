@@ -0,0 +1,39 @@
+package com.timetable.repository;
+
+import com.timetable.model.GenerationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.time.Instant;
+import java.util.Optional;
+
+public interface GenerationJobRepository extends JpaRepository<GenerationJob, Long> {
+    // Oldest queued job that no other worker is currently claiming
+    @Query(value = "SELECT * FROM generation_job WHERE status = 'QUEUED' ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<GenerationJob> claimNext();
+
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.leaseExpiresAt = ?3, j.updatedAt = ?4 WHERE j.id = ?1 AND j.owner = ?2 AND j.status = 'RUNNING'")
+    int renewLease(Long id, String owner, Instant leaseExpiresAt, Instant now);
+
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = ?3, j.result = ?4, j.error = ?5, j.leaseExpiresAt = null, j.updatedAt = ?6 " +
+           "WHERE j.id = ?1 AND j.owner = ?2 AND j.status = 'RUNNING'")
+    int finish(Long id, String owner, String status, String result, String error, Instant now);
+
+    // Gives back a claimed job that never started, without counting the claim as an attempt
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = 'QUEUED', j.owner = null, j.leaseExpiresAt = null, j.attempts = j.attempts - 1, j.updatedAt = ?3 " +
+           "WHERE j.id = ?1 AND j.owner = ?2 AND j.status = 'RUNNING'")
+    int release(Long id, String owner, Instant now);
+
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = 'QUEUED', j.owner = null, j.leaseExpiresAt = null, j.updatedAt = ?1 " +
+           "WHERE j.status = 'RUNNING' AND j.leaseExpiresAt < ?1 AND j.attempts < ?2")
+    int requeueExpired(Instant now, int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE GenerationJob j SET j.status = 'FAILED', j.error = 'Lease expired too many times', j.leaseExpiresAt = null, j.updatedAt = ?1 " +
+           "WHERE j.status = 'RUNNING' AND j.leaseExpiresAt < ?1 AND j.attempts >= ?2")
+    int failExpired(Instant now, int maxAttempts);
+}
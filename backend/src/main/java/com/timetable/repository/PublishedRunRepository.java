@@ -0,0 +1,15 @@
+package com.timetable.repository;
+
+import com.timetable.model.PublishedRun;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Optional;
+
+public interface PublishedRunRepository extends JpaRepository<PublishedRun, Long> {
+    // Serializes publishes across all backend instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM PublishedRun r WHERE r.id = ?1")
+    Optional<PublishedRun> lockById(Long id);
+}
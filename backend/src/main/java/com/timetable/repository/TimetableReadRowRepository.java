@@ -0,0 +1,15 @@
+package com.timetable.repository;
+
+import com.timetable.model.TimetableReadRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface TimetableReadRowRepository extends JpaRepository<TimetableReadRow, TimetableReadRow.Key> {
+    List<TimetableReadRow> findAllByOrderBySectionNameAscDayIndexAscStartTimeAsc();
+
+    List<TimetableReadRow> findBySectionIdOrderByDayIndexAscStartTimeAsc(Long sectionId);
+
+    List<TimetableReadRow> findByFacultyIdOrderByDayIndexAscStartTimeAsc(Long facultyId);
+
+    List<TimetableReadRow> findByRoomIdOrderByDayIndexAscStartTimeAsc(Long roomId);
+}
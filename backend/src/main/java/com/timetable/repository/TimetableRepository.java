@@ -2,7 +2,9 @@ package com.timetable.repository;
 
 import com.timetable.model.Timetable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
 import java.util.List;
 
 public interface TimetableRepository extends JpaRepository<Timetable, Long> {
@@ -14,4 +16,11 @@ public interface TimetableRepository extends JpaRepository<Timetable, Long> {
     
     @Query("SELECT t FROM Timetable t WHERE t.room.id = ?1 AND t.timeslot.id = ?2")
     List<Timetable> findByRoomAndTimeslot(Long roomId, Long timeslotId);
+
+    @Query("SELECT DISTINCT t FROM Timetable t LEFT JOIN FETCH t.sections")
+    List<Timetable> findAllWithSections();
+
+    @Modifying
+    @Query(value = "DELETE FROM timetable_sections WHERE timetable_id IN ?1", nativeQuery = true)
+    int deleteSectionLinks(Collection<Long> timetableIds);
 } 
\ No newline at end of file
@@ -0,0 +1,181 @@
+package com.timetable.service;
+
+import com.timetable.model.Faculty;
+import com.timetable.model.Timeslot;
+
+import java.util.*;
+
+// Order in which one solve tries faculty for a lecture: least booked hours first, then the most free slots left on
+// their preferred days, then id. Every distinct eligible-faculty list keeps an indexed binary min-heap, so booking
+// a lecture re-keys the faculty member in O(log n) per heap they sit in, and candidates come out best-first
+// without sorting. Not thread-safe; each solve owns its selector.
+class FacultySelector {
+    private final Map<Long, Standing> standings = new HashMap<>();
+    private final Map<List<Long>, Heap> heaps = new HashMap<>();
+
+    FacultySelector(List<Faculty> faculties, List<Timeslot> timeslots) {
+        for (Faculty faculty : faculties) {
+            Set<String> preferredDays = preferredDays(faculty);
+            int preferredSlots = 0;
+            for (Timeslot ts : timeslots) {
+                if (isPreferred(preferredDays, ts.getDay())) {
+                    preferredSlots++;
+                }
+            }
+            standings.put(faculty.getId(), new Standing(faculty, preferredDays, preferredSlots));
+        }
+    }
+
+    // Eligible faculty of a subject-section, best candidate first. Unknown ids are left out. The view stays current
+    // as lectures are booked, so callers resolve it once per subject-section and keep it.
+    Iterable<Faculty> candidates(long[] facultyIds) {
+        List<Long> key = Arrays.stream(facultyIds).distinct().sorted().boxed().toList();
+        Heap heap = heaps.computeIfAbsent(key, this::newHeap);
+        return heap::inOrder;
+    }
+
+    // One booked lecture hour; moves the faculty member down every heap that holds them
+    void booked(Faculty faculty, Timeslot timeslot) {
+        Standing standing = standings.get(faculty.getId());
+        if (standing == null) {
+            return;
+        }
+        standing.load++;
+        if (isPreferred(standing.preferredDays, timeslot.getDay())) {
+            standing.preferredSlotsFree--;
+        }
+        for (Heap heap : standing.heaps) {
+            heap.siftDown(heap.positions.get(standing.faculty.getId()));
+        }
+    }
+
+    private Heap newHeap(List<Long> facultyIds) {
+        Heap heap = new Heap();
+        for (Long id : facultyIds) {
+            Standing standing = standings.get(id);
+            if (standing != null) {
+                heap.add(standing);
+                standing.heaps.add(heap);
+            }
+        }
+        return heap;
+    }
+
+    private static Set<String> preferredDays(Faculty faculty) {
+        Set<String> days = new HashSet<>();
+        if (faculty.getPreferredDays() != null) {
+            for (String day : faculty.getPreferredDays().split(",")) {
+                if (!day.isBlank()) {
+                    days.add(day.trim().toLowerCase());
+                }
+            }
+        }
+        return days;
+    }
+
+    // No stated preference counts every day as preferred, the same as the slot ordering in the solver
+    private static boolean isPreferred(Set<String> preferredDays, String day) {
+        return preferredDays.isEmpty() || preferredDays.contains(day.toLowerCase());
+    }
+
+    private static final class Standing {
+        final Faculty faculty;
+        final Set<String> preferredDays;
+        final List<Heap> heaps = new ArrayList<>(1);
+        int load;
+        int preferredSlotsFree;
+
+        Standing(Faculty faculty, Set<String> preferredDays, int preferredSlotsFree) {
+            this.faculty = faculty;
+            this.preferredDays = preferredDays;
+            this.preferredSlotsFree = preferredSlotsFree;
+        }
+
+        boolean before(Standing other) {
+            if (load != other.load) {
+                return load < other.load;
+            }
+            if (preferredSlotsFree != other.preferredSlotsFree) {
+                return preferredSlotsFree > other.preferredSlotsFree;
+            }
+            return faculty.getId() < other.faculty.getId();
+        }
+    }
+
+    private static final class Heap {
+        final List<Standing> entries = new ArrayList<>();
+        // Faculty id -> index in entries
+        final Map<Long, Integer> positions = new HashMap<>();
+
+        void add(Standing standing) {
+            entries.add(standing);
+            positions.put(standing.faculty.getId(), entries.size() - 1);
+            siftUp(entries.size() - 1);
+        }
+
+        // Keys only ever grow (more load, fewer free preferred slots), so a re-key only moves down
+        void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < entries.size(); child++) {
+                    if (entries.get(child).before(entries.get(smallest))) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!entries.get(index).before(entries.get(parent))) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        void swap(int a, int b) {
+            Standing first = entries.get(a);
+            Standing second = entries.get(b);
+            entries.set(a, second);
+            entries.set(b, first);
+            positions.put(second.faculty.getId(), a);
+            positions.put(first.faculty.getId(), b);
+        }
+
+        // Walks the heap best-first through a frontier of heap positions, so taking the first k candidates costs
+        // O(k log k) and the heap itself is left untouched
+        Iterator<Faculty> inOrder() {
+            PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) ->
+                entries.get(a).before(entries.get(b)) ? -1 : entries.get(b).before(entries.get(a)) ? 1 : 0);
+            if (!entries.isEmpty()) {
+                frontier.add(0);
+            }
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return !frontier.isEmpty();
+                }
+
+                @Override
+                public Faculty next() {
+                    if (frontier.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    int index = frontier.poll();
+                    for (int child = 2 * index + 1; child <= 2 * index + 2 && child < entries.size(); child++) {
+                        frontier.add(child);
+                    }
+                    return entries.get(index).faculty;
+                }
+            };
+        }
+    }
+}
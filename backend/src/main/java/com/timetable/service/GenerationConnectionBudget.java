@@ -0,0 +1,34 @@
+package com.timetable.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Caps how many pooled connections generation work (reference-data loads and publishes) holds at once. The rest of
+// the pool stays free for the read endpoints, so reads keep their latency during a burst of generations.
+@Component
+public class GenerationConnectionBudget {
+    private final Semaphore connections;
+
+    public GenerationConnectionBudget(@Value("${timetable.solver.db-connections:4}") int connections) {
+        this.connections = new Semaphore(connections, true);
+    }
+
+    public <T> T call(Supplier<T> work) {
+        connections.acquireUninterruptibly();
+        try {
+            return work.get();
+        } finally {
+            connections.release();
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.timetable.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetable.dto.GenerationRequest;
+import com.timetable.model.GenerationJob;
+import com.timetable.repository.GenerationJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Queue side of the generation workers: API instances only record the job, any worker instance picks it up
+@Service
+public class GenerationJobService {
+    @Autowired
+    private GenerationJobRepository generationJobRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public Map<String, Object> enqueue(GenerationRequest request, Long timeBudgetMs, boolean persistPartial) {
+        GenerationJob job = new GenerationJob();
+        job.setStatus(GenerationJob.QUEUED);
+        try {
+            job.setRequest(objectMapper.writeValueAsString(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Generation request could not be serialized", e);
+        }
+        job.setTimeBudgetMs(timeBudgetMs);
+        job.setPersistPartial(persistPartial);
+        Instant now = Instant.now();
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return describe(generationJobRepository.save(job));
+    }
+
+    public Optional<Map<String, Object>> find(Long jobId) {
+        return generationJobRepository.findById(jobId).map(this::describe);
+    }
+
+    private Map<String, Object> describe(GenerationJob job) {
+        Map<String, Object> description = new HashMap<>();
+        description.put("jobId", job.getId());
+        description.put("status", job.getStatus());
+        description.put("attempts", job.getAttempts());
+        description.put("createdAt", job.getCreatedAt());
+        description.put("updatedAt", job.getUpdatedAt());
+        if (job.getOwner() != null) {
+            description.put("owner", job.getOwner());
+        }
+        if (job.getError() != null) {
+            description.put("error", job.getError());
+        }
+        if (job.getResult() != null) {
+            try {
+                description.put("result", objectMapper.readTree(job.getResult()));
+            } catch (JsonProcessingException e) {
+                description.put("result", job.getResult());
+            }
+        }
+        return description;
+    }
+}
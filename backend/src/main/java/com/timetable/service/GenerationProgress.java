@@ -0,0 +1,113 @@
+package com.timetable.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+// Streams solver progress to SSE subscribers. The solver only offers events into a bounded queue and never waits
+// or writes to a socket itself; a single dispatcher thread does all the network writes.
+@Component
+public class GenerationProgress {
+    public static final String PHASE_SOLVING = "SOLVING";
+    public static final String PHASE_CACHED = "CACHED";
+    public static final String PHASE_PERSISTING = "PERSISTING";
+    public static final String PHASE_COMPLETED = "COMPLETED";
+    public static final String PHASE_FAILED = "FAILED";
+
+    private static final long SUBSCRIPTION_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private final BlockingQueue<ProgressEvent> buffer;
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private Thread dispatcher;
+
+    public GenerationProgress(@Value("${timetable.progress.buffer-size:1024}") int bufferSize) {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatchLoop, "generation-progress");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.interrupt();
+    }
+
+    public SseEmitter subscribe(String runId) {
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT_MS);
+        subscribers.computeIfAbsent(runId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(runId, emitter));
+        emitter.onTimeout(() -> unsubscribe(runId, emitter));
+        emitter.onError(error -> unsubscribe(runId, emitter));
+        return emitter;
+    }
+
+    public void phase(String runId, String phase, Map<String, Object> details) {
+        if (!isWatched(runId)) {
+            return;
+        }
+        // Phase changes must get through: make room by discarding the oldest buffered event instead
+        ProgressEvent event = new ProgressEvent(runId, "phase", Map.of("phase", phase, "details", details));
+        while (!buffer.offer(event)) {
+            buffer.poll();
+        }
+    }
+
+    public void progress(String runId, int iteration, int placed, int remaining, int skipped) {
+        if (!isWatched(runId)) {
+            return;
+        }
+        // Buffer full: drop it, the next progress event supersedes this one anyway
+        buffer.offer(new ProgressEvent(runId, "progress", Map.of("iteration", iteration, "placed", placed, "remaining", remaining, "skipped", skipped)));
+    }
+
+    private boolean isWatched(String runId) {
+        return runId != null && subscribers.containsKey(runId);
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            ProgressEvent event;
+            try {
+                event = buffer.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            boolean finished = "phase".equals(event.name())
+                && (PHASE_COMPLETED.equals(event.data().get("phase")) || PHASE_FAILED.equals(event.data().get("phase")));
+            for (SseEmitter emitter : subscribers.getOrDefault(event.runId(), List.of())) {
+                try {
+                    emitter.send(SseEmitter.event().name(event.name()).data(event.data()));
+                    if (finished) {
+                        emitter.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(event.runId(), emitter);
+                }
+            }
+            if (finished) {
+                subscribers.remove(event.runId());
+            }
+        }
+    }
+
+    private void unsubscribe(String runId, SseEmitter emitter) {
+        subscribers.computeIfPresent(runId, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private record ProgressEvent(String runId, String name, Map<String, Object> data) {
+    }
+}
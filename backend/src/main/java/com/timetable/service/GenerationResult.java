@@ -0,0 +1,11 @@
+package com.timetable.service;
+
+import com.timetable.model.Timetable;
+
+import java.util.List;
+import java.util.Map;
+
+// Outcome of one solve, before anything is written to the database.
+// A partial result is the best schedule found before the solve was stopped; stopReason says why.
+public record GenerationResult(List<Timetable> timetable, List<Map<String, Object>> skippedSlots, boolean partial, String stopReason) {
+}
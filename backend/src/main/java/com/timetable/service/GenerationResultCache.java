@@ -0,0 +1,165 @@
+package com.timetable.service;
+
+import com.timetable.dto.SubjectDemand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Content-addressed cache of solved schedules. Identical inputs against the same reference data share one solve,
+// including requests that arrive while that solve is still running.
+@Component
+public class GenerationResultCache {
+    private static final long WAIT_STEP_MILLIS = 100;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<String, CachedResult> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<GenerationResult>> inFlight = new ConcurrentHashMap<>();
+
+    public GenerationResultCache(@Value("${timetable.generation.cache.max-entries:32}") int maxEntries,
+                                 @Value("${timetable.generation.cache.ttl:PT30M}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        // Access-ordered, so the eldest entry is always the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > GenerationResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    // The solver runs under the caller's control. A caller that finds the same input already being solved waits for
+    // that solve, but only as long as its own control allows; a partial result of another caller's solve is not
+    // taken as its answer.
+    public GenerationResult getOrCompute(String key, SolveControl control, Supplier<GenerationResult> solver) {
+        while (true) {
+            GenerationResult cached = get(key);
+            if (cached != null) {
+                return cached;
+            }
+
+            CompletableFuture<GenerationResult> mine = new CompletableFuture<>();
+            CompletableFuture<GenerationResult> leader = inFlight.putIfAbsent(key, mine);
+            if (leader == null) {
+                return lead(key, mine, solver);
+            }
+
+            GenerationResult shared = await(leader, control);
+            if (shared == null) {
+                // Out of time or cancelled while waiting: solve under our own control, which stops straight away
+                // and reports our own stop reason
+                return solver.get();
+            }
+            if (!shared.partial()) {
+                return shared;
+            }
+            // The leader was stopped by its own deadline or cancel; try again, solving it ourselves if nobody else is
+            inFlight.remove(key, leader);
+        }
+    }
+
+    private GenerationResult lead(String key, CompletableFuture<GenerationResult> mine, Supplier<GenerationResult> solver) {
+        try {
+            // Re-check: the previous leader may have finished between our cache miss and claiming the slot
+            GenerationResult result = get(key);
+            if (result == null) {
+                result = solver.get();
+                // A stopped solve is only a best effort for this caller, not the answer for this input
+                if (!result.partial()) {
+                    put(key, result);
+                }
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private synchronized GenerationResult get(String key) {
+        CachedResult cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - cached.storedAt() > ttlMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return cached.result();
+    }
+
+    private synchronized void put(String key, GenerationResult result) {
+        entries.put(key, new CachedResult(result, System.currentTimeMillis()));
+    }
+
+    // Leader's result, or null once the follower's own control says stop. Polls in short steps so a cancel is
+    // noticed without the leader having to finish first.
+    private GenerationResult await(CompletableFuture<GenerationResult> leader, SolveControl control) {
+        try {
+            while (!control.shouldStop()) {
+                try {
+                    return leader.get(Math.max(1, Math.min(control.remainingMillis(), WAIT_STEP_MILLIS)), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // Check the follower's control again
+                }
+            }
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            control.cancel();
+            return null;
+        }
+    }
+
+    // Canonical form of a generate request: demand order and faculty id order do not matter, and the legacy
+    // one-map-per-unit payload hashes the same as the equivalent typed request
+    public static String keyFor(List<SubjectDemand> demands, int referenceDataVersion) {
+        List<String> lines = new ArrayList<>(demands.size());
+        for (SubjectDemand demand : demands) {
+            long[] facultyIds = demand.facultyIds().clone();
+            Arrays.sort(facultyIds);
+            lines.add(String.join("\u0000",
+                demand.subjectName(),
+                String.valueOf(demand.sectionId()),
+                String.valueOf(demand.duration()),
+                String.valueOf(demand.lecturesPerWeek()),
+                Arrays.toString(facultyIds)));
+        }
+        Collections.sort(lines);
+        lines.add("#reference=" + referenceDataVersion);
+        return sha256(String.join("\n", lines));
+    }
+
+    private static String sha256(String canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedResult(GenerationResult result, long storedAt) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.timetable.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Solves that are queued or running, by run id, so a client can cancel its own run. The servlet container does not
+// reliably tell an async request that its client went away, so an abandoned run has to be cancelled explicitly.
+@Component
+public class GenerationRuns {
+    private final Map<String, SolveControl> running = new ConcurrentHashMap<>();
+
+    public void register(SolveControl control) {
+        if (control.runId() != null) {
+            running.put(control.runId(), control);
+        }
+    }
+
+    public void finished(SolveControl control) {
+        if (control.runId() != null) {
+            running.remove(control.runId(), control);
+        }
+    }
+
+    // False when no run with this id is queued or running
+    public boolean cancel(String runId) {
+        SolveControl control = running.get(runId);
+        if (control == null) {
+            return false;
+        }
+        control.cancel();
+        return true;
+    }
+}
@@ -0,0 +1,198 @@
+package com.timetable.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetable.dto.GenerationRequest;
+import com.timetable.model.GenerationJob;
+import com.timetable.repository.GenerationJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Claims queued generation jobs from the shared database, one at a time per instance. A claimed job is leased to
+// this worker; the lease is kept alive by heartbeats, and a lease that runs out (worker died) is handed back to the
+// queue by whichever worker notices first. Jobs are solved through SolverAdmission like any request, each job as
+// its own tenant, so they share the solver threads instead of adding a solve on top of them. The result is written in the same transaction as the published
+// timetable, and only if this worker still owns the lease.
+// Enabled by a runtime flag rather than a bean condition, so one ahead-of-time processed build serves both roles.
+@Component
+public class GenerationWorker {
+    @Autowired
+    private GenerationJobRepository generationJobRepository;
+
+    @Autowired
+    private TimetableService timetableService;
+
+    @Autowired
+    private GenerationRuns generationRuns;
+
+    @Autowired
+    private SolverAdmission solverAdmission;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${timetable.worker.enabled:false}")
+    private boolean enabled;
+
+    @Value("${timetable.worker.lease:PT30S}")
+    private Duration lease;
+
+    @Value("${timetable.worker.max-attempts:3}")
+    private int maxAttempts;
+
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "generation-worker-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Set from claiming a job until its solve is over
+    private final AtomicBoolean busy = new AtomicBoolean();
+
+    @PreDestroy
+    public void stop() {
+        heartbeats.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${timetable.worker.poll-interval:PT1S}")
+    public void poll() {
+        if (!enabled || !busy.compareAndSet(false, true)) {
+            return;
+        }
+        GenerationJob job = null;
+        try {
+            job = claim();
+        } finally {
+            if (job == null) {
+                busy.set(false);
+            }
+        }
+        if (job != null) {
+            submit(job);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${timetable.worker.lease:PT30S}")
+    public void requeueExpiredLeases() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            generationJobRepository.requeueExpired(now, maxAttempts);
+            generationJobRepository.failExpired(now, maxAttempts);
+        });
+    }
+
+    private GenerationJob claim() {
+        return transactionTemplate.execute(status -> generationJobRepository.claimNext()
+            .map(job -> {
+                Instant now = Instant.now();
+                job.setStatus(GenerationJob.RUNNING);
+                job.setOwner(workerId);
+                job.setLeaseExpiresAt(now.plus(lease));
+                job.setAttempts(job.getAttempts() + 1);
+                job.setUpdatedAt(now);
+                return generationJobRepository.save(job);
+            })
+            .orElse(null));
+    }
+
+    // The lease is heartbeated from the claim on, so it also stays alive while the job waits for a solver slot
+    private void submit(GenerationJob job) {
+        SolveControl control = timetableService.newSolveControl(job.getTimeBudgetMs(), "job-" + job.getId());
+        generationRuns.register(control);
+        long heartbeatMillis = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(() -> renewLease(job, control), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        Runnable done = () -> {
+            heartbeat.cancel(false);
+            generationRuns.finished(control);
+            busy.set(false);
+        };
+        try {
+            solverAdmission.submit(control.runId(), () -> {
+                try {
+                    run(job, control);
+                } finally {
+                    done.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            // No solver slot or queue space right now: hand the job back for this or another worker to pick up later
+            done.run();
+            transactionTemplate.executeWithoutResult(status -> generationJobRepository.release(job.getId(), workerId, Instant.now()));
+        }
+    }
+
+    private void run(GenerationJob job, SolveControl control) {
+        if (control.shouldStop()) {
+            // Lease lost, cancelled or out of time while waiting for a slot: nothing was solved, so nothing is published
+            transactionTemplate.executeWithoutResult(status -> generationJobRepository.finish(job.getId(), workerId, GenerationJob.FAILED,
+                null, "Stopped before solving: " + control.stopReason(), Instant.now()));
+            return;
+        }
+        try {
+            GenerationRequest request = objectMapper.readValue(job.getRequest(), GenerationRequest.class);
+            Map<String, Object> outcome = timetableService.generateTimetable(request, control, job.isPersistPartial(),
+                published -> finish(job, published));
+            if (!Boolean.TRUE.equals(outcome.get("persisted"))) {
+                // Partial result that was not published: record it without touching the timetable
+                transactionTemplate.executeWithoutResult(status -> finish(job, outcome));
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            transactionTemplate.executeWithoutResult(status ->
+                generationJobRepository.finish(job.getId(), workerId, GenerationJob.FAILED, null, truncate(String.valueOf(e.getMessage())), Instant.now()));
+        }
+    }
+
+    private void renewLease(GenerationJob job, SolveControl control) {
+        Integer renewed = transactionTemplate.execute(status ->
+            generationJobRepository.renewLease(job.getId(), workerId, Instant.now().plus(lease), Instant.now()));
+        if (renewed == null || renewed == 0) {
+            // Lease was taken over by another worker; stop wasting CPU on a result that can no longer be published
+            control.cancel();
+        }
+    }
+
+    private void finish(GenerationJob job, Map<String, Object> outcome) {
+        int updated = generationJobRepository.finish(job.getId(), workerId, GenerationJob.SUCCEEDED, summarize(outcome), null, Instant.now());
+        if (updated == 0) {
+            throw new IllegalStateException("Lease on generation job " + job.getId() + " was lost before publishing");
+        }
+    }
+
+    // The published timetable itself is readable through the timetable APIs; the job only keeps the outcome
+    private String summarize(Map<String, Object> outcome) {
+        Map<String, Object> summary = new HashMap<>(outcome);
+        summary.put("entries", ((List<?>) summary.remove("timetable")).size());
+        try {
+            return objectMapper.writeValueAsString(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,112 @@
+package com.timetable.service;
+
+import com.timetable.model.TimetableReadRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+// In-memory occupancy of the published timetable, used to answer conflict checks without hitting the database.
+// The whole index is rebuilt off to the side and swapped in, so readers never see a half-applied publish.
+@Component
+public class OccupancyIndex {
+    @Autowired
+    private TimetableReadModel timetableReadModel;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        snapshot = Snapshot.of(timetableReadModel.all());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublished(TimetablePublishedEvent event) {
+        snapshot = Snapshot.of(event.rows());
+    }
+
+    public Map<String, Object> check(List<Long> timeslotIds, Long facultyId, Long roomId, List<Long> sectionIds, Long excludeTimetableId) {
+        Snapshot current = snapshot;
+        List<Occupant> facultyConflicts = new ArrayList<>();
+        List<Occupant> sectionConflicts = new ArrayList<>();
+        List<Occupant> roomConflicts = new ArrayList<>();
+
+        for (Long timeslotId : timeslotIds) {
+            if (facultyId != null) {
+                collect(current.byFaculty, facultyId, timeslotId, excludeTimetableId, facultyConflicts);
+            }
+            if (roomId != null) {
+                collect(current.byRoom, roomId, timeslotId, excludeTimetableId, roomConflicts);
+            }
+            if (sectionIds != null) {
+                for (Long sectionId : sectionIds) {
+                    collect(current.bySection, sectionId, timeslotId, excludeTimetableId, sectionConflicts);
+                }
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("facultyConflicts", facultyConflicts);
+        result.put("sectionConflicts", sectionConflicts);
+        result.put("roomConflicts", roomConflicts);
+        result.put("hasConflicts", !facultyConflicts.isEmpty() || !sectionConflicts.isEmpty() || !roomConflicts.isEmpty());
+        return result;
+    }
+
+    private void collect(Map<SlotKey, List<Occupant>> occupancy, Long resourceId, Long timeslotId, Long excludeTimetableId, List<Occupant> out) {
+        for (Occupant occupant : occupancy.getOrDefault(new SlotKey(resourceId, timeslotId), Collections.emptyList())) {
+            // A lecture being moved does not clash with its own current position
+            if (!occupant.timetableId().equals(excludeTimetableId) && !out.contains(occupant)) {
+                out.add(occupant);
+            }
+        }
+    }
+
+    private record SlotKey(Long resourceId, Long timeslotId) {
+    }
+
+    public record Occupant(Long timetableId, String subjectName, Long facultyId, Long roomId, List<Long> sectionIds, Long timeslotId) {
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of());
+
+        final Map<SlotKey, List<Occupant>> byFaculty;
+        final Map<SlotKey, List<Occupant>> bySection;
+        final Map<SlotKey, List<Occupant>> byRoom;
+
+        private Snapshot(Map<SlotKey, List<Occupant>> byFaculty, Map<SlotKey, List<Occupant>> bySection, Map<SlotKey, List<Occupant>> byRoom) {
+            this.byFaculty = byFaculty;
+            this.bySection = bySection;
+            this.byRoom = byRoom;
+        }
+
+        static Snapshot of(List<TimetableReadRow> rows) {
+            // A combined lecture has one read row per section; it is a single occupant
+            Map<Long, List<TimetableReadRow>> rowsByLecture = new LinkedHashMap<>();
+            for (TimetableReadRow row : rows) {
+                rowsByLecture.computeIfAbsent(row.getTimetableId(), id -> new ArrayList<>(1)).add(row);
+            }
+
+            Map<SlotKey, List<Occupant>> byFaculty = new HashMap<>();
+            Map<SlotKey, List<Occupant>> bySection = new HashMap<>();
+            Map<SlotKey, List<Occupant>> byRoom = new HashMap<>();
+            for (List<TimetableReadRow> lecture : rowsByLecture.values()) {
+                TimetableReadRow first = lecture.get(0);
+                Long timeslotId = first.getTimeslotId();
+                List<Long> sectionIds = lecture.stream().map(TimetableReadRow::getSectionId).toList();
+                Occupant occupant = new Occupant(first.getTimetableId(), first.getSubjectName(), first.getFacultyId(),
+                    first.getRoomId(), sectionIds, timeslotId);
+                byFaculty.computeIfAbsent(new SlotKey(occupant.facultyId(), timeslotId), k -> new ArrayList<>(1)).add(occupant);
+                byRoom.computeIfAbsent(new SlotKey(occupant.roomId(), timeslotId), k -> new ArrayList<>(1)).add(occupant);
+                for (Long sectionId : sectionIds) {
+                    bySection.computeIfAbsent(new SlotKey(sectionId, timeslotId), k -> new ArrayList<>(1)).add(occupant);
+                }
+            }
+            return new Snapshot(byFaculty, bySection, byRoom);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.timetable.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Deadline and cancellation flag for one solve. The solver polls it between placements and stops with
+// whatever it has scheduled so far.
+public class SolveControl {
+    public static final String TIMEOUT = "TIMEOUT";
+    public static final String CANCELLED = "CANCELLED";
+
+    private final long deadlineNanos;
+    private final String runId;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public SolveControl(Duration budget, String runId) {
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+        this.runId = runId;
+    }
+
+    // Client-chosen id that progress events for this solve are published under; may be null
+    public String runId() {
+        return runId;
+    }
+
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean shouldStop() {
+        return stopReason() != null;
+    }
+
+    public String stopReason() {
+        if (cancelled.get()) {
+            return CANCELLED;
+        }
+        return System.nanoTime() - deadlineNanos >= 0 ? TIMEOUT : null;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000);
+    }
+}
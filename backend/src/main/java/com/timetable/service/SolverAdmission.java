@@ -0,0 +1,128 @@
+package com.timetable.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Admission control in front of the solver executor: at most one solve per core runs, the rest wait in a bounded
+// queue. Waiting solves are handed out round-robin across tenants, so one tenant's burst cannot starve another's
+// single request. When the queue (or the tenant's share of it) is full the solve is rejected straight away with
+// an estimate of when to retry.
+@Component
+public class SolverAdmission {
+    // Weight of the latest solve in the running average of solve durations
+    private static final double DURATION_SMOOTHING = 0.2;
+
+    private final ThreadPoolTaskExecutor solverExecutor;
+    private final int maxRunning;
+    private final int queueCapacity;
+    private final int tenantQueueCapacity;
+
+    // Tenants in the order they are served next; a tenant is moved to the back after each hand-out
+    private final LinkedHashMap<String, ArrayDeque<Runnable>> waiting = new LinkedHashMap<>();
+    private int queued;
+    private int running;
+    private double averageSolveMillis = 1_000;
+
+    public SolverAdmission(ThreadPoolTaskExecutor solverExecutor,
+                           @Value("${timetable.solver.queue-capacity:64}") int queueCapacity,
+                           @Value("${timetable.solver.tenant-queue-capacity:8}") int tenantQueueCapacity) {
+        this.solverExecutor = solverExecutor;
+        this.maxRunning = solverExecutor.getMaxPoolSize();
+        this.queueCapacity = queueCapacity;
+        this.tenantQueueCapacity = tenantQueueCapacity;
+    }
+
+    public static class RejectedException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        RejectedException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long retryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    public void submit(String tenant, Runnable solve) {
+        synchronized (this) {
+            if (running < maxRunning) {
+                running++;
+            } else {
+                ArrayDeque<Runnable> tenantQueue = waiting.get(tenant);
+                int tenantQueued = tenantQueue == null ? 0 : tenantQueue.size();
+                if (queued >= queueCapacity) {
+                    throw new RejectedException("Solver queue is full, try again later.", retryAfterSeconds(queued));
+                }
+                if (tenantQueued >= tenantQueueCapacity) {
+                    throw new RejectedException("Too many queued generations for this tenant, try again later.", retryAfterSeconds(tenantQueued));
+                }
+                waiting.computeIfAbsent(tenant, t -> new ArrayDeque<>()).add(solve);
+                queued++;
+                return;
+            }
+        }
+        start(solve);
+    }
+
+    private void start(Runnable solve) {
+        try {
+            solverExecutor.execute(() -> {
+                long started = System.nanoTime();
+                try {
+                    solve.run();
+                } finally {
+                    finished((System.nanoTime() - started) / 1_000_000);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Executor shut down; give the slot back
+            synchronized (this) {
+                running--;
+            }
+            throw e;
+        }
+    }
+
+    private void finished(long solveMillis) {
+        Runnable next;
+        synchronized (this) {
+            averageSolveMillis += DURATION_SMOOTHING * (solveMillis - averageSolveMillis);
+            next = nextWaiting();
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        // The slot passes straight to the next waiting solve
+        start(next);
+    }
+
+    private Runnable nextWaiting() {
+        Iterator<Map.Entry<String, ArrayDeque<Runnable>>> tenants = waiting.entrySet().iterator();
+        if (!tenants.hasNext()) {
+            return null;
+        }
+        Map.Entry<String, ArrayDeque<Runnable>> tenant = tenants.next();
+        Runnable next = tenant.getValue().poll();
+        tenants.remove();
+        if (!tenant.getValue().isEmpty()) {
+            waiting.put(tenant.getKey(), tenant.getValue());
+        }
+        queued--;
+        return next;
+    }
+
+    // Time until roughly `ahead` queued solves have drained through the running slots
+    private long retryAfterSeconds(int ahead) {
+        double millis = averageSolveMillis * (ahead / (double) maxRunning + 1);
+        return Math.max(1, (long) Math.ceil(millis / 1000));
+    }
+}
@@ -0,0 +1,144 @@
+package com.timetable.service;
+
+import com.timetable.model.Timeslot;
+import com.timetable.model.TimetableReadRow;
+import com.timetable.repository.TimeslotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Day x period grids of the published run for every section, faculty and room.
+// Pivoting happens once per publish; reads only look up a prebuilt grid.
+@Component
+public class TimetableGridViews {
+    @Autowired
+    private TimetableReadModel timetableReadModel;
+
+    @Autowired
+    private TimeslotRepository timeslotRepository;
+
+    private volatile Snapshot snapshot = new Snapshot("none", Map.of(), Map.of(), Map.of());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        // The run id doubles as the grids' ETag, so it has to be the published run's and survive restarts
+        TimetablePublishedEvent current = timetableReadModel.current();
+        snapshot = build(current.runId(), current.rows());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublished(TimetablePublishedEvent event) {
+        snapshot = build(event.runId(), event.rows());
+    }
+
+    public String currentRunId() {
+        return snapshot.runId();
+    }
+
+    public List<GridView> allSections() {
+        return new ArrayList<>(snapshot.sections().values());
+    }
+
+    public Optional<GridView> section(Long sectionId) {
+        return Optional.ofNullable(snapshot.sections().get(sectionId));
+    }
+
+    public Optional<GridView> faculty(Long facultyId) {
+        return Optional.ofNullable(snapshot.faculty().get(facultyId));
+    }
+
+    public Optional<GridView> room(Long roomId) {
+        return Optional.ofNullable(snapshot.rooms().get(roomId));
+    }
+
+    private Snapshot build(String runId, List<TimetableReadRow> rows) {
+        List<Timeslot> allTimeslots = timeslotRepository.findAll();
+        List<String> days = orderedDays(allTimeslots);
+        List<String> periods = orderedPeriods(allTimeslots);
+
+        Map<String, Integer> dayIndex = indexOf(days);
+        Map<String, Integer> periodIndex = indexOf(periods);
+        Map<Long, GridView> sections = new LinkedHashMap<>();
+        Map<Long, GridView> faculty = new LinkedHashMap<>();
+        Map<Long, GridView> rooms = new LinkedHashMap<>();
+
+        // One row per section of a lecture; faculty and room grids keep the first row's cell for a combined lecture
+        for (TimetableReadRow row : rows) {
+            Integer d = dayIndex.get(row.getDay());
+            Integer p = periodIndex.get(row.getPeriod());
+            if (d == null || p == null) {
+                continue; // Timeslot removed since the run was published
+            }
+            GridCell cell = new GridCell(row.getTimetableId(), row.getSubjectName(), row.getFacultyName(), row.getRoomNumber(),
+                row.getSectionsLabel(), row.getStartTime().toString(), row.getEndTime().toString());
+
+            sections.computeIfAbsent(row.getSectionId(), id -> GridView.empty(runId, "section", id, row.getSectionName(), days, periods)).place(d, p, cell);
+            faculty.computeIfAbsent(row.getFacultyId(), id -> GridView.empty(runId, "faculty", id, row.getFacultyName(), days, periods)).place(d, p, cell);
+            rooms.computeIfAbsent(row.getRoomId(), id -> GridView.empty(runId, "room", id, row.getRoomNumber(), days, periods)).place(d, p, cell);
+        }
+
+        return new Snapshot(runId, sortedByName(sections), faculty, rooms);
+    }
+
+    static List<String> orderedDays(List<Timeslot> timeslots) {
+        return timeslots.stream()
+            .map(Timeslot::getDay)
+            .distinct()
+            .sorted(Comparator.comparingInt(TimetableReadModel::dayIndex).thenComparing(Function.identity()))
+            .collect(Collectors.toList());
+    }
+
+    // Periods are ordered by the earliest start time they occur at
+    static List<String> orderedPeriods(List<Timeslot> timeslots) {
+        Map<String, Timeslot> firstSlotOfPeriod = new HashMap<>();
+        for (Timeslot ts : timeslots) {
+            firstSlotOfPeriod.merge(ts.getPeriod(), ts, (a, b) -> a.getStartTime().isBefore(b.getStartTime()) ? a : b);
+        }
+        return firstSlotOfPeriod.values().stream()
+            .sorted(Comparator.comparing(Timeslot::getStartTime))
+            .map(Timeslot::getPeriod)
+            .collect(Collectors.toList());
+    }
+
+    private static Map<Long, GridView> sortedByName(Map<Long, GridView> grids) {
+        Map<Long, GridView> sorted = new LinkedHashMap<>();
+        grids.values().stream()
+            .sorted(Comparator.comparing(GridView::name))
+            .forEach(grid -> sorted.put(grid.id(), grid));
+        return sorted;
+    }
+
+    private static Map<String, Integer> indexOf(List<String> values) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            index.put(values.get(i), i);
+        }
+        return index;
+    }
+
+    public record GridCell(Long timetableId, String subjectName, String facultyName, String roomNumber, String sections,
+                           String startTime, String endTime) {
+    }
+
+    // cells[day][period] is null for a free slot
+    public record GridView(String runId, String type, Long id, String name, List<String> days, List<String> periods, GridCell[][] cells) {
+        static GridView empty(String runId, String type, Long id, String name, List<String> days, List<String> periods) {
+            return new GridView(runId, type, id, name, days, periods, new GridCell[days.size()][periods.size()]);
+        }
+
+        void place(int day, int period, GridCell cell) {
+            if (cells[day][period] == null) {
+                cells[day][period] = cell;
+            }
+        }
+    }
+
+    private record Snapshot(String runId, Map<Long, GridView> sections, Map<Long, GridView> faculty, Map<Long, GridView> rooms) {
+    }
+}
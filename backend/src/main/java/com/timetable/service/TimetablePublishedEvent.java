@@ -0,0 +1,9 @@
+package com.timetable.service;
+
+import com.timetable.model.TimetableReadRow;
+
+import java.util.List;
+
+// Raised once a generated timetable has been written, so in-memory views can be rebuilt from its read model rows
+public record TimetablePublishedEvent(String runId, List<TimetableReadRow> rows) {
+}
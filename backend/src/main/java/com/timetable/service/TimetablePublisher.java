@@ -0,0 +1,198 @@
+package com.timetable.service;
+
+import com.timetable.model.PublishedRun;
+import com.timetable.model.Timetable;
+import com.timetable.model.TimetableReadRow;
+import com.timetable.repository.PublishedRunRepository;
+import com.timetable.repository.TimetableRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Replaces the persisted timetable with a solved schedule in a single transaction. The published_run row is locked
+// for the duration, so publishes from different backend instances never interleave.
+@Component
+public class TimetablePublisher {
+    @Autowired
+    private TimetableRepository timetableRepository;
+
+    @Autowired
+    private PublishedRunRepository publishedRunRepository;
+
+    @Autowired
+    private TimetableReadModel timetableReadModel;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static final String PERSISTENCE_MODE_REPLACE = "replace";
+
+    // "diff" writes only the rows that changed, "replace" rewrites the whole table
+    @Value("${timetable.persistence.mode:diff}")
+    private String persistenceMode;
+
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    // Run this instance last published or loaded, and its entries (null until needed after a reload)
+    private volatile String publishedRunId;
+    private volatile List<Timetable> publishedEntries;
+
+    public List<Timetable> publish(String fingerprint, List<Timetable> schedule) {
+        return publish(fingerprint, schedule, entries -> { });
+    }
+
+    // alsoInTransaction runs inside the publish transaction; throwing from it rolls the whole publish back
+    public List<Timetable> publish(String fingerprint, List<Timetable> schedule, Consumer<List<Timetable>> alsoInTransaction) {
+        publishLock.lock();
+        try {
+            Published published = transactionTemplate.execute(status -> {
+                // The row is seeded by the migrations, so every publish, the first one included, serializes on it
+                PublishedRun run = publishedRunRepository.lockById(PublishedRun.CURRENT)
+                    .orElseThrow(() -> new IllegalStateException("published_run row " + PublishedRun.CURRENT + " is missing; run the schema migrations"));
+                if (fingerprint != null && fingerprint.equals(run.getFingerprint())) {
+                    // Identical request already published, nothing to rewrite
+                    List<Timetable> known = publishedEntries;
+                    List<Timetable> entries = run.getRunId().equals(publishedRunId) && known != null ? known : loadEntries();
+                    alsoInTransaction.accept(entries);
+                    return new Published(run.getRunId(), entries);
+                }
+
+                List<Timetable> entries = PERSISTENCE_MODE_REPLACE.equals(persistenceMode) ? replaceAll(schedule) : applyDiff(schedule);
+                List<TimetableReadRow> rows = timetableReadModel.write(entries);
+                String runId = UUID.randomUUID().toString();
+                publishedRunRepository.save(new PublishedRun(PublishedRun.CURRENT, runId, fingerprint, Instant.now()));
+                alsoInTransaction.accept(entries);
+                eventPublisher.publishEvent(new TimetablePublishedEvent(runId, rows));
+                return new Published(runId, entries);
+            });
+            publishedRunId = published.runId();
+            publishedEntries = published.entries();
+            return published.entries();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        publishedRunId = publishedRunRepository.findById(PublishedRun.CURRENT).map(PublishedRun::getRunId).orElse(null);
+    }
+
+    // Another instance (e.g. a generation worker) may have published; reload so local views follow it. Only the read
+    // model is needed for that, the entities are loaded if an identical request is published here later.
+    @Scheduled(fixedDelayString = "${timetable.publish.refresh-interval:PT2S}")
+    public void refreshIfPublishedElsewhere() {
+        String latestRunId = publishedRunRepository.findById(PublishedRun.CURRENT).map(PublishedRun::getRunId).orElse(null);
+        if (latestRunId == null || latestRunId.equals(publishedRunId) || !publishLock.tryLock()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PublishedRun run = publishedRunRepository.findById(PublishedRun.CURRENT).orElseThrow();
+                List<TimetableReadRow> rows = timetableReadModel.all();
+                publishedRunId = run.getRunId();
+                publishedEntries = null;
+                eventPublisher.publishEvent(new TimetablePublishedEvent(run.getRunId(), rows));
+            });
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private List<Timetable> replaceAll(List<Timetable> schedule) {
+        timetableRepository.deleteAll();
+        List<Timetable> entries = new ArrayList<>();
+        for (Timetable template : schedule) {
+            entries.add(timetableRepository.save(copyOf(template)));
+        }
+        return entries;
+    }
+
+    // Matches the new schedule against the persisted rows by (subject, sections, timeslot). Matching rows are kept,
+    // and only updated if faculty or room moved; everything else is inserted or deleted.
+    private List<Timetable> applyDiff(List<Timetable> schedule) {
+        Map<String, Deque<Timetable>> persistedByKey = new HashMap<>();
+        for (Timetable existing : timetableRepository.findAllWithSections()) {
+            persistedByKey.computeIfAbsent(diffKey(existing), k -> new ArrayDeque<>()).add(existing);
+        }
+
+        List<Timetable> entries = new ArrayList<>(schedule.size());
+        List<Timetable> inserts = new ArrayList<>();
+        for (Timetable template : schedule) {
+            Deque<Timetable> candidates = persistedByKey.get(diffKey(template));
+            Timetable existing = candidates != null ? candidates.poll() : null;
+            if (existing == null) {
+                Timetable entry = copyOf(template);
+                inserts.add(entry);
+                entries.add(entry);
+                continue;
+            }
+            // Managed entity: changed fields are flushed as a batched UPDATE on commit
+            if (!existing.getFaculty().getId().equals(template.getFaculty().getId())) {
+                existing.setFaculty(template.getFaculty());
+            }
+            if (!existing.getRoom().getId().equals(template.getRoom().getId())) {
+                existing.setRoom(template.getRoom());
+            }
+            entries.add(existing);
+        }
+
+        List<Long> deletedIds = new ArrayList<>();
+        persistedByKey.values().forEach(leftovers -> leftovers.forEach(stale -> deletedIds.add(stale.getId())));
+        if (!deletedIds.isEmpty()) {
+            // Bulk deletes skip the association cascade, so the join rows go first
+            timetableRepository.deleteSectionLinks(deletedIds);
+            timetableRepository.deleteAllByIdInBatch(deletedIds);
+        }
+        timetableRepository.saveAll(inserts);
+        return entries;
+    }
+
+    private static String diffKey(Timetable entry) {
+        List<Long> sectionIds = new ArrayList<>();
+        if (entry.getSections() != null) {
+            entry.getSections().forEach(section -> sectionIds.add(section.getId()));
+        }
+        if (sectionIds.isEmpty() && entry.getSection() != null) {
+            sectionIds.add(entry.getSection().getId());
+        }
+        Collections.sort(sectionIds);
+        return entry.getSubjectName() + "|" + sectionIds + "|" + entry.getTimeslot().getId();
+    }
+
+    private List<Timetable> loadEntries() {
+        List<Timetable> entries = timetableRepository.findAll();
+        // Listeners run after the transaction, so the lazy sections association must be loaded now
+        entries.forEach(entry -> Hibernate.initialize(entry.getSections()));
+        return entries;
+    }
+
+    // Cached schedules are reused across publishes, so each write works on a fresh, id-less copy
+    private Timetable copyOf(Timetable template) {
+        Timetable entry = new Timetable();
+        entry.setSubjectName(template.getSubjectName());
+        entry.setFaculty(template.getFaculty());
+        entry.setRoom(template.getRoom());
+        entry.setSection(template.getSection());
+        entry.setSections(template.getSections() != null ? new ArrayList<>(template.getSections()) : null);
+        entry.setTimeslot(template.getTimeslot());
+        return entry;
+    }
+
+    private record Published(String runId, List<Timetable> entries) {
+    }
+}
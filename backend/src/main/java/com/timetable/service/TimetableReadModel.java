@@ -0,0 +1,119 @@
+package com.timetable.service;
+
+import com.timetable.model.PublishedRun;
+import com.timetable.model.Section;
+import com.timetable.model.Timetable;
+import com.timetable.model.TimetableReadRow;
+import com.timetable.repository.PublishedRunRepository;
+import com.timetable.repository.TimetableReadRowRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Keeps timetable_read_model in step with the published timetable and serves the read APIs from it
+@Component
+public class TimetableReadModel {
+    private static final List<String> DAY_ORDER = List.of("Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday");
+
+    @Autowired
+    private TimetableReadRowRepository timetableReadRowRepository;
+
+    @Autowired
+    private PublishedRunRepository publishedRunRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Must run inside the publish transaction. Rows are diffed against the current ones, so a publish that moved
+    // a few lectures only rewrites their rows.
+    public List<TimetableReadRow> write(List<Timetable> entries) {
+        Map<TimetableReadRow.Key, TimetableReadRow> current = new HashMap<>();
+        for (TimetableReadRow row : timetableReadRowRepository.findAll()) {
+            current.put(new TimetableReadRow.Key(row.getTimetableId(), row.getSectionId()), row);
+        }
+
+        List<TimetableReadRow> rows = rowsOf(entries);
+        for (TimetableReadRow row : rows) {
+            TimetableReadRow existing = current.remove(new TimetableReadRow.Key(row.getTimetableId(), row.getSectionId()));
+            if (existing == null) {
+                // Assigned ids, so these inserts are batched
+                entityManager.persist(row);
+            } else if (!existing.equals(row)) {
+                entityManager.merge(row);
+            }
+        }
+        timetableReadRowRepository.deleteAll(current.values());
+        return rows;
+    }
+
+    // The published run as views built at startup need it: its id and rows, read together so they belong to the
+    // same run
+    public TimetablePublishedEvent current() {
+        return transactionTemplate.execute(status -> new TimetablePublishedEvent(
+            publishedRunRepository.findById(PublishedRun.CURRENT).map(PublishedRun::getRunId).orElse("none"), all()));
+    }
+
+    public List<TimetableReadRow> all() {
+        return timetableReadRowRepository.findAllByOrderBySectionNameAscDayIndexAscStartTimeAsc();
+    }
+
+    public List<TimetableReadRow> forSection(Long sectionId) {
+        return timetableReadRowRepository.findBySectionIdOrderByDayIndexAscStartTimeAsc(sectionId);
+    }
+
+    // A combined lecture has a row per section; faculty and room views list it once
+    public List<TimetableReadRow> forFaculty(Long facultyId) {
+        return onePerLecture(timetableReadRowRepository.findByFacultyIdOrderByDayIndexAscStartTimeAsc(facultyId));
+    }
+
+    public List<TimetableReadRow> forRoom(Long roomId) {
+        return onePerLecture(timetableReadRowRepository.findByRoomIdOrderByDayIndexAscStartTimeAsc(roomId));
+    }
+
+    static int dayIndex(String day) {
+        for (int i = 0; i < DAY_ORDER.size(); i++) {
+            if (DAY_ORDER.get(i).equalsIgnoreCase(day)) {
+                return i;
+            }
+        }
+        return DAY_ORDER.size();
+    }
+
+    private static List<TimetableReadRow> onePerLecture(List<TimetableReadRow> rows) {
+        Set<Long> seen = new HashSet<>();
+        return rows.stream().filter(row -> seen.add(row.getTimetableId())).collect(Collectors.toList());
+    }
+
+    private static List<TimetableReadRow> rowsOf(List<Timetable> entries) {
+        List<TimetableReadRow> rows = new ArrayList<>();
+        for (Timetable entry : entries) {
+            List<Section> sections = sectionsOf(entry);
+            String sectionsLabel = sections.stream().map(Section::getName).collect(Collectors.joining(", "));
+            for (Section section : sections) {
+                rows.add(new TimetableReadRow(entry.getId(), section.getId(), section.getName(), section.getStudentCount(),
+                    entry.getSubjectName(), sectionsLabel,
+                    entry.getFaculty().getId(), entry.getFaculty().getName(),
+                    entry.getRoom().getId(), entry.getRoom().getRoomNumber(), entry.getRoom().getRoomType(), entry.getRoom().getCapacity(),
+                    entry.getTimeslot().getId(), entry.getTimeslot().getDay(), dayIndex(entry.getTimeslot().getDay()),
+                    entry.getTimeslot().getPeriod(), entry.getTimeslot().getStartTime(), entry.getTimeslot().getEndTime()));
+            }
+        }
+        return rows;
+    }
+
+    // Combined lectures have no single section, only the sections association
+    private static List<Section> sectionsOf(Timetable entry) {
+        if (entry.getSections() != null && !entry.getSections().isEmpty()) {
+            return entry.getSections();
+        }
+        return entry.getSection() != null ? List.of(entry.getSection()) : List.of();
+    }
+}
@@ -1,14 +1,20 @@
 package com.timetable.service;
 
+import com.timetable.dto.GenerationRequest;
+import com.timetable.dto.SubjectDemand;
 import com.timetable.model.*;
 import com.timetable.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +33,24 @@ public class TimetableService {
     
     @Autowired
     private TimetableRepository timetableRepository;
+
+    @Autowired
+    private TimetablePublisher timetablePublisher;
+
+    @Autowired
+    private GenerationResultCache generationResultCache;
+
+    @Autowired
+    private GenerationProgress generationProgress;
+
+    @Autowired
+    private GenerationConnectionBudget generationConnectionBudget;
+
+    @Value("${timetable.generation.default-time-budget:PT30S}")
+    private Duration defaultTimeBudget;
+
+    @Value("${timetable.generation.max-time-budget:PT2M}")
+    private Duration maxTimeBudget;
     
     public Map<String, List<?>> getReferenceData() {
         Map<String, List<?>> referenceData = new HashMap<>();
@@ -37,15 +61,93 @@ public class TimetableService {
         return referenceData;
     }
     
-    public ResponseEntity<Map<String, Object>> generateTimetable(List<Map<String, Object>> subjectsInput) {
-        timetableRepository.deleteAll();
+    // Time budget requested by the caller, clamped to the configured maximum
+    public SolveControl newSolveControl(Long timeBudgetMs, String runId) {
+        Duration budget = timeBudgetMs != null && timeBudgetMs > 0 ? Duration.ofMillis(timeBudgetMs) : defaultTimeBudget;
+        return new SolveControl(budget.compareTo(maxTimeBudget) > 0 ? maxTimeBudget : budget, runId);
+    }
+
+    public ResponseEntity<Map<String, Object>> generateTimetable(GenerationRequest request, SolveControl control, boolean persistPartial) {
+        return ResponseEntity.ok(generateTimetable(request.subjects(), new ArrayList<>(), control, persistPartial, published -> { }));
+    }
+
+    // Used by generation workers: inPublishTransaction gets the outcome and commits or rolls back together with the published timetable
+    public Map<String, Object> generateTimetable(GenerationRequest request, SolveControl control, boolean persistPartial,
+                                                 Consumer<Map<String, Object>> inPublishTransaction) {
+        return generateTimetable(request.subjects(), new ArrayList<>(), control, persistPartial, inPublishTransaction);
+    }
 
-        // Fetch all necessary reference data once
-        List<Timeslot> allTimeslots = timeslotRepository.findAll();
-        List<Room> allRooms = roomRepository.findAll();
-        List<Faculty> allFaculties = facultyRepository.findAll();
-        List<Section> allSections = sectionRepository.findAll();
+    // Legacy payload: one untyped map per lecture unit. Folded into per subject-section demands before solving.
+    public ResponseEntity<Map<String, Object>> generateTimetable(List<Map<String, Object>> subjectsInput, SolveControl control, boolean persistPartial) {
+        List<Map<String, Object>> inputIssues = new ArrayList<>();
+        return ResponseEntity.ok(generateTimetable(toDemands(subjectsInput, inputIssues), inputIssues, control, persistPartial, published -> { }));
+    }
+
+    private Map<String, Object> generateTimetable(List<SubjectDemand> demands, List<Map<String, Object>> inputIssues,
+                                                  SolveControl control, boolean persistPartial, Consumer<Map<String, Object>> inPublishTransaction) {
+        try {
+            return generateAndReport(demands, inputIssues, control, persistPartial, inPublishTransaction);
+        } catch (RuntimeException e) {
+            generationProgress.phase(control.runId(), GenerationProgress.PHASE_FAILED, Map.of("error", String.valueOf(e.getMessage())));
+            throw e;
+        }
+    }
 
+    private Map<String, Object> generateAndReport(List<SubjectDemand> demands, List<Map<String, Object>> inputIssues,
+                                                  SolveControl control, boolean persistPartial, Consumer<Map<String, Object>> inPublishTransaction) {
+        // Fetch all necessary reference data once, within the connection budget of generation work
+        ReferenceData reference = generationConnectionBudget.call(() -> new ReferenceData(timeslotRepository.findAll(),
+            roomRepository.findAll(), facultyRepository.findAll(), sectionRepository.findAll()));
+        List<Timeslot> allTimeslots = reference.timeslots();
+        List<Room> allRooms = reference.rooms();
+        List<Faculty> allFaculties = reference.faculties();
+        List<Section> allSections = reference.sections();
+
+        // Same subjects against the same reference data produce an equivalent schedule, so solve it only once
+        String cacheKey = GenerationResultCache.keyFor(demands, Objects.hash(allTimeslots, allRooms, allFaculties, allSections));
+        generationProgress.phase(control.runId(), GenerationProgress.PHASE_SOLVING,
+            Map.of("lectureUnits", demands.stream().mapToInt(SubjectDemand::lecturesPerWeek).sum()));
+        AtomicBoolean solvedHere = new AtomicBoolean();
+        GenerationResult generated = generationResultCache.getOrCompute(cacheKey, control, () -> {
+            solvedHere.set(true);
+            return solve(demands, allTimeslots, allRooms, allFaculties, allSections, control);
+        });
+        if (!solvedHere.get()) {
+            generationProgress.phase(control.runId(), GenerationProgress.PHASE_CACHED, Map.of("entries", generated.timetable().size()));
+        }
+
+        // A stopped solve leaves the published timetable untouched unless the caller explicitly wants the partial one
+        boolean persist = !generated.partial() || persistPartial;
+        if (persist) {
+            generationProgress.phase(control.runId(), GenerationProgress.PHASE_PERSISTING, Map.of("entries", generated.timetable().size()));
+        }
+        List<Map<String, Object>> skippedSlots = inputIssues;
+        skippedSlots.addAll(generated.skippedSlots());
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("timetable", generated.timetable());
+        result.put("skippedSlots", skippedSlots);
+        result.put("partial", generated.partial());
+        result.put("persisted", persist);
+        if (generated.stopReason() != null) {
+            result.put("stopReason", generated.stopReason());
+        }
+        if (persist) {
+            generationConnectionBudget.run(() -> timetablePublisher.publish(generated.partial() ? null : cacheKey, generated.timetable(), published -> {
+                result.put("timetable", published);
+                inPublishTransaction.accept(result);
+            }));
+        }
+        generationProgress.phase(control.runId(), GenerationProgress.PHASE_COMPLETED, Map.of("partial", generated.partial(), "persisted", persist,
+            "entries", ((List<?>) result.get("timetable")).size(), "skipped", generated.skippedSlots().size()));
+        return result;
+    }
+
+    private record ReferenceData(List<Timeslot> timeslots, List<Room> rooms, List<Faculty> faculties, List<Section> sections) {
+    }
+
+    private GenerationResult solve(List<SubjectDemand> demands, List<Timeslot> allTimeslots, List<Room> allRooms,
+                                   List<Faculty> allFaculties, List<Section> allSections, SolveControl control) {
         // Initialize tracking data structures
         List<Timetable> generatedTimetable = new ArrayList<>();
         List<Map<String, Object>> skippedSlots = new ArrayList<>();
@@ -54,43 +156,29 @@ public class TimetableService {
         Map<Long, Set<Long>> facultyBookedSlots = new HashMap<>();
         Map<Long, Set<Long>> sectionBookedSlots = new HashMap<>();
         Map<Long, Set<Long>> roomBookedSlots = new HashMap<>();
-        Map<Long, Integer> facultyLectureLoad = new HashMap<>();
         Map<String, Set<String>> subjectSectionAssignedDays = new HashMap<>();
-// For round -robin faculty assignment per subject
-        Map<String, Integer> subjectFacultyRoundRobinIndex = new HashMap<>();
+        // Least loaded eligible faculty first, kept ordered as lectures are booked
+        FacultySelector facultySelector = new FacultySelector(allFaculties, allTimeslots);
         
         // New: Track sections that have been combined for a subject (Key: "subjectName|sectionId")
         Set<String> combinedSectionsTracked = new HashSet<>();
         // New: Track remaining lectures needed for each subject-section pair
         // Key: "subjectName|sectionId" -> Integer (count of lectures still needed)
         Map<String, Integer> remainingLectures = new HashMap<>();
-        // Helper map to store original subject data by key for easy lookup of duration and frequency
-        Map<String, Map<String, Object>> subjectMetadata = new HashMap<>();
-        Map<String, Set<String>> subjectAssignedDays = new HashMap<>(); // subjectName -> set of days
-
-        // Pre-process subjectsInput to initialize remainingLectures and subjectMetadata
-        for (Map<String, Object> subjectData : subjectsInput) {
-            String subjectName = (String) subjectData.get("subjectName");
-            Object sectionIdObj = subjectData.get("sectionId");
-            Long sectionId = null;
-            if (sectionIdObj != null) {
-                try { sectionId = Long.valueOf(sectionIdObj.toString()); } catch (NumberFormatException e) { /* handled later */ }
-            }
-            
-            if (subjectName != null && sectionId != null) {
-                String key = subjectName + "|" + sectionId;
-                remainingLectures.merge(key, 1, Integer::sum); // Increment count for each lecture unit
-                
-                // Store metadata if not already present (assuming frequency/duration are consistent for subject-section)
-                if (!subjectMetadata.containsKey(key)) {
-                    // Parse faculty IDs immediately to ensure correct type
-                    List<Long> parsedFacultyIds = parseFacultyIds(subjectData.get("facultyIds"), subjectName, skippedSlots);
-                    subjectMetadata.put(key, Map.of(
-                        "duration", subjectData.get("duration"),
-                        "frequency", subjectData.get("frequency"),
-                        "facultyIds", parsedFacultyIds // Store the parsed list
-                    ));
-                }
+        // Demand by key for easy lookup of duration, weekly count and faculty
+        Map<String, SubjectDemand> subjectMetadata = new HashMap<>();
+        // Eligible faculty by key, resolved once; each view follows the bookings, best candidate first
+        Map<String, Iterable<Faculty>> eligibleFacultiesByKey = new HashMap<>();
+        // Sections were loaded with the reference data; the solve itself does not touch the database
+        Map<Long, Section> sectionsById = allSections.stream().collect(Collectors.toMap(Section::getId, section -> section));
+
+        // Initialize remainingLectures and subjectMetadata from the per subject-section demands
+        for (SubjectDemand demand : demands) {
+            String key = demand.subjectName() + "|" + demand.sectionId();
+            remainingLectures.merge(key, demand.lecturesPerWeek(), Integer::sum);
+            // Assuming duration/faculty are consistent for a subject-section, the first demand wins
+            if (subjectMetadata.putIfAbsent(key, demand) == null) {
+                eligibleFacultiesByKey.put(key, facultySelector.candidates(demand.facultyIds()));
             }
         }
 
@@ -102,9 +190,17 @@ public class TimetableService {
         int iterationCount = 0;
         final int MAX_ITERATIONS = 5; // Prevent infinite loops
 
+        String stopReason = null;
+        // Lecture units placed so far, for progress reporting
+        int totalUnits = remainingLectures.values().stream().mapToInt(Integer::intValue).sum();
+        int placedUnits = 0;
+
         do {
             progressMade = false;
             iterationCount++;
+            if ((stopReason = control.stopReason()) != null) {
+                break;
+            }
             if (iterationCount > MAX_ITERATIONS) { 
                 // If after MAX_ITERATIONS, we are still making progress, it implies a complex scenario 
                 // or potential for infinite loops with highly constrained inputs. Break to prevent hangs.
@@ -117,6 +213,9 @@ public class TimetableService {
             Collections.shuffle(keysToSchedule);
 
             for (String key : keysToSchedule) {
+                if ((stopReason = control.stopReason()) != null) {
+                    break;
+                }
                 if (remainingLectures.getOrDefault(key, 0) <= 0) {
                     continue; // Already scheduled all lectures for this subject-section
                 }
@@ -130,28 +229,25 @@ public class TimetableService {
                 String subjectName = parts[0];
                 Long sectionId = Long.valueOf(parts[1]);
 
-                Map<String, Object> metadata = subjectMetadata.get(key);
+                SubjectDemand metadata = subjectMetadata.get(key);
                 if (metadata == null) {
                     skippedSlots.add(Map.of("subject", subjectName, "sectionId", sectionId, "reason", "Missing subject metadata. Skipping."));
                     remainingLectures.put(key, 0);
                     continue;
                 }
 
-                int duration = Integer.parseInt(metadata.get("duration").toString());
-                int frequency = Integer.parseInt(metadata.get("frequency").toString());
-                List<Long> inputFacultyIds = (List<Long>) metadata.get("facultyIds");
+                int duration = metadata.duration();
+                int frequency = metadata.lecturesPerWeek();
 
-                Section currentSection = sectionRepository.findById(sectionId).orElse(null);
+                Section currentSection = sectionsById.get(sectionId);
                 if (currentSection == null) {
                     skippedSlots.add(Map.of("subject", subjectName, "sectionId", sectionId, "reason", "Section not found. Skipping."));
                     remainingLectures.put(key, 0);
                     continue;
                 }
 
-                List<Faculty> eligibleFaculties = allFaculties.stream()
-                                                .filter(f -> inputFacultyIds.contains(f.getId()))
-                                                .collect(Collectors.toList());
-                if (eligibleFaculties.isEmpty()) {
+                Iterable<Faculty> eligibleFaculties = eligibleFacultiesByKey.get(key);
+                if (!eligibleFaculties.iterator().hasNext()) {
                     skippedSlots.add(Map.of("subject", subjectName, "section", currentSection.getName(), "reason", "No eligible faculties for subject. Skipping."));
                     remainingLectures.put(key, 0);
                     continue;
@@ -165,21 +261,18 @@ public class TimetableService {
                     if (partnerSectionOpt.isPresent()) {
                         Section partnerSection = partnerSectionOpt.get();
                         String partnerKey = subjectName + "|" + partnerSection.getId();
-                        int facultyCount = eligibleFaculties.size();
-                        int startIdx = subjectFacultyRoundRobinIndex.getOrDefault(subjectName, 0);
-                        for (int offset = 0; offset < facultyCount; offset++) {
-                            int idx = (startIdx + offset) % facultyCount;
-                            Faculty faculty = eligibleFaculties.get(idx);
+                        for (Faculty faculty : eligibleFaculties) {
                             boolean combinedAssigned = tryAssignCombinedLectureWithFaculty_SubjectDayCheck(subjectName, currentSection, partnerSection, duration, faculty,
                                 allTimeslots, allRooms, generatedTimetable, skippedSlots,
-                                facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultyLectureLoad,
+                                facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultySelector,
                                 frequency, subjectSectionAssignedDays);
                             if (combinedAssigned) {
                                 remainingLectures.merge(key, -1, Integer::sum);
                                 remainingLectures.merge(partnerKey, -1, Integer::sum);
+                                placedUnits += 2;
+                                generationProgress.progress(control.runId(), iterationCount, placedUnits, totalUnits - placedUnits, skippedSlots.size());
                                 combinedSectionsTracked.add(key);
                                 combinedSectionsTracked.add(partnerKey);
-                                subjectFacultyRoundRobinIndex.put(subjectName, (idx + 1) % facultyCount);
                                 progressMade = true;
                                 break;
                             }
@@ -189,24 +282,23 @@ public class TimetableService {
                 }
 
                 // Fallback: assign individually (CR room)
-                int facultyCount = eligibleFaculties.size();
-                int startIdx = subjectFacultyRoundRobinIndex.getOrDefault(subjectName, 0);
-                for (int offset = 0; offset < facultyCount; offset++) {
-                    int idx = (startIdx + offset) % facultyCount;
-                    Faculty faculty = eligibleFaculties.get(idx);
+                for (Faculty faculty : eligibleFaculties) {
                     assignedThisIteration = tryAssignLectureWithFaculty_SubjectDayCheck(subjectName, currentSection, duration, faculty,
                         allTimeslots, allRooms, generatedTimetable, skippedSlots,
-                        facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultyLectureLoad,
+                        facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultySelector,
                         frequency, subjectSectionAssignedDays);
                     if (assignedThisIteration) {
                         remainingLectures.merge(key, -1, Integer::sum);
-                        subjectFacultyRoundRobinIndex.put(subjectName, (idx + 1) % facultyCount);
+                        placedUnits++;
+                        generationProgress.progress(control.runId(), iterationCount, placedUnits, totalUnits - placedUnits, skippedSlots.size());
                         progressMade = true;
                         break;
                     }
                 }
             }
-        } while (progressMade && remainingLectures.values().stream().anyMatch(count -> count > 0));
+            generationProgress.progress(control.runId(), iterationCount, placedUnits, totalUnits - placedUnits, skippedSlots.size());
+        } while (stopReason == null && progressMade && remainingLectures.values().stream().anyMatch(count -> count > 0));
+        final String finalStopReason = stopReason;
 
         // Final reporting for truly skipped slots
         remainingLectures.forEach((key, count) -> {
@@ -215,18 +307,54 @@ public class TimetableService {
                 String subjectName = parts[0];
                 Long sectionId = Long.valueOf(parts[1]);
                 Section section = allSections.stream().filter(s -> s.getId().equals(sectionId)).findFirst().orElse(null);
-                skippedSlots.add(Map.of("subject", subjectName, "section", section != null ? section.getName() : "N/A", "reason", "Not enough available slots to fulfill all lectures for the week."));
+                String reason = finalStopReason != null ? "Solve stopped (" + finalStopReason + ") before all lectures for the week were placed."
+                                                         : "Not enough available slots to fulfill all lectures for the week.";
+                skippedSlots.add(Map.of("subject", subjectName, "section", section != null ? section.getName() : "N/A", "reason", reason));
             }
         });
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("timetable", generatedTimetable);
-        result.put("skippedSlots", skippedSlots);
-        return ResponseEntity.ok(result);
+        return new GenerationResult(generatedTimetable, skippedSlots, stopReason != null, stopReason);
     }
 
     // --- Helper Methods for Scheduling Logic ---
 
+    // Counts lecture units per subject-section instead of carrying one map per unit into the solver
+    private List<SubjectDemand> toDemands(List<Map<String, Object>> subjectsInput, List<Map<String, Object>> inputIssues) {
+        Map<String, Integer> unitCounts = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> firstUnit = new HashMap<>();
+        for (Map<String, Object> subjectData : subjectsInput) {
+            String subjectName = (String) subjectData.get("subjectName");
+            Object sectionIdObj = subjectData.get("sectionId");
+            Long sectionId = null;
+            if (sectionIdObj != null) {
+                try { sectionId = Long.valueOf(sectionIdObj.toString()); } catch (NumberFormatException e) { /* ignored like a missing section */ }
+            }
+            if (subjectName != null && sectionId != null) {
+                String key = subjectName + "|" + sectionId;
+                unitCounts.merge(key, 1, Integer::sum);
+                firstUnit.putIfAbsent(key, subjectData);
+            }
+        }
+
+        List<SubjectDemand> demands = new ArrayList<>(unitCounts.size());
+        unitCounts.forEach((key, count) -> {
+            Map<String, Object> subjectData = firstUnit.get(key);
+            String subjectName = (String) subjectData.get("subjectName");
+            Long sectionId = Long.valueOf(subjectData.get("sectionId").toString());
+            int duration;
+            try {
+                duration = Integer.parseInt(String.valueOf(subjectData.get("duration")));
+            } catch (NumberFormatException e) {
+                inputIssues.add(Map.of("subject", subjectName, "sectionId", sectionId, "reason", "Invalid duration. Skipping."));
+                return;
+            }
+            List<Long> parsedFacultyIds = parseFacultyIds(subjectData.get("facultyIds"), subjectName, inputIssues);
+            demands.add(new SubjectDemand(subjectName, sectionId, duration, count,
+                parsedFacultyIds.stream().mapToLong(Long::longValue).toArray()));
+        });
+        return demands;
+    }
+
     private List<Long> parseFacultyIds(Object facultyIdsObj, String subjectName, List<Map<String, Object>> skippedSlots) {
         List<Long> facultyIds = new ArrayList<>();
         if (facultyIdsObj instanceof List) {
@@ -251,144 +379,6 @@ public class TimetableService {
         return facultyIds;
     }
 
-    private boolean tryAssignLecture(String subjectName, Section section, int duration, List<Faculty> eligibleFaculties,
-                                    List<Timeslot> allTimeslots, List<Room> allRooms, List<Timetable> generatedTimetable, List<Map<String, Object>> skippedSlots,
-                                    Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots, Map<Long, Set<Long>> roomBookedSlots, Map<Long, Integer> facultyLectureLoad,
-                                    int subjectFrequency, Map<String, Set<String>> subjectSectionAssignedDays, Map<String, Integer> facultyRoundRobinIndex) {
-
-        // Use round-robin index for this subject-section
-        String subjectSectionKey = subjectName + "|" + section.getId();
-        // Sort eligible faculties by id for deterministic order
-        eligibleFaculties.sort(Comparator.comparingLong(Faculty::getId));
-        int facultyCount = eligibleFaculties.size();
-        int startIdx = 0;
-        if (facultyRoundRobinIndex.containsKey(subjectSectionKey)) {
-            startIdx = facultyRoundRobinIndex.get(subjectSectionKey);
-        }
-        // Try each faculty in round-robin order
-        for (int offset = 0; offset < facultyCount; offset++) {
-            int idx = (startIdx + offset) % facultyCount;
-            Faculty faculty = eligibleFaculties.get(idx);
-            String preferredDaysStr = faculty.getPreferredDays();
-            List<String> facultyPreferredDays = (preferredDaysStr != null && !preferredDaysStr.isEmpty()) ?
-                                                Arrays.asList(preferredDaysStr.split(",")).stream().map(String::trim).collect(Collectors.toList()) : Collections.emptyList();
-
-            List<Timeslot> availableTimeslotsForFaculty = new ArrayList<>();
-            List<Timeslot> otherTimeslotsForFaculty = new ArrayList<>();
-
-            for (Timeslot ts : allTimeslots) {
-                boolean isPreferredDay = facultyPreferredDays.isEmpty() || facultyPreferredDays.stream().anyMatch(day -> day.equalsIgnoreCase(ts.getDay()));
-                boolean isFacultyAvailable = !facultyBookedSlots.getOrDefault(faculty.getId(), Collections.emptySet()).contains(ts.getId());
-                boolean isSectionAvailable = !sectionBookedSlots.getOrDefault(section.getId(), Collections.emptySet()).contains(ts.getId());
-
-                boolean isDayAlreadyUsed = subjectFrequency > 1 && subjectSectionAssignedDays.getOrDefault(subjectSectionKey, Collections.emptySet()).contains(ts.getDay());
-
-                if (isFacultyAvailable && isSectionAvailable && !isDayAlreadyUsed) {
-                    if (isPreferredDay) {
-                        availableTimeslotsForFaculty.add(ts);
-                    } else {
-                        otherTimeslotsForFaculty.add(ts);
-                    }
-                }
-            }
-
-            List<Timeslot> combinedAvailableTimeslots = new ArrayList<>(availableTimeslotsForFaculty);
-            combinedAvailableTimeslots.addAll(otherTimeslotsForFaculty);
-
-            List<Timeslot> consecutiveSlots = findConsecutiveTimeslots(combinedAvailableTimeslots, duration, faculty.getId(), section.getId(),
-                                                                       facultyBookedSlots, sectionBookedSlots, allTimeslots);
-
-            if (!consecutiveSlots.isEmpty()) {
-                Room selectedRoom = getAvailableRoom(section.getStudentCount(), consecutiveSlots, roomBookedSlots, allRooms);
-                if (selectedRoom != null) {
-                    assignLecture(subjectName, faculty, selectedRoom, Arrays.asList(section), consecutiveSlots, generatedTimetable,
-                                  facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultyLectureLoad);
-                    subjectSectionAssignedDays.computeIfAbsent(subjectSectionKey, k -> new HashSet<>()).add(consecutiveSlots.get(0).getDay());
-                    // Update round-robin index for next assignment
-                    facultyRoundRobinIndex.put(subjectSectionKey, (idx + 1) % facultyCount);
-                    return true;
-                } else {
-                    skippedSlots.add(Map.of("subject", subjectName, "section", section.getName(), "faculty", faculty.getName(), "reason", "No room available for the selected timeslots. (Check roomType/capacity in your data)"));
-                }
-            } else {
-                 skippedSlots.add(Map.of("subject", subjectName, "section", section.getName(), "faculty", faculty.getName(), "reason", "No consecutive timeslots found for required duration or day already used for this faculty."));
-            }
-        }
-        skippedSlots.add(Map.of("subject", subjectName, "section", section.getName(), "reason", "No eligible faculty could assign the lecture."));
-        return false;
-    }
-
-    private boolean tryAssignCombinedLecture(String subjectName, Section section1, Section section2, int duration, List<Faculty> eligibleFaculties,
-                                           List<Timeslot> allTimeslots, List<Room> allRooms, List<Timetable> generatedTimetable, List<Map<String, Object>> skippedSlots,
-                                           Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots, Map<Long, Set<Long>> roomBookedSlots, Map<Long, Integer> facultyLectureLoad,
-                                           int subjectFrequency, Map<String, Set<String>> subjectSectionAssignedDays) {
-
-        int combinedCapacityNeeded = section1.getStudentCount() + section2.getStudentCount();
-        if (combinedCapacityNeeded > 180) {
-            skippedSlots.add(Map.of("subject", subjectName, "section1", section1.getName(), "section2", section2.getName(), "reason", "Combined capacity exceeds LT room capacity."));
-            return false;
-        }
-
-        Collections.shuffle(eligibleFaculties);
-        eligibleFaculties.sort(Comparator.comparingInt(f -> facultyLectureLoad.getOrDefault(f.getId(), 0)));
-        
-        String section1Key = subjectName + "|" + section1.getId();
-        String section2Key = subjectName + "|" + section2.getId();
-
-        for (Faculty faculty : eligibleFaculties) {
-            String preferredDaysStr = faculty.getPreferredDays();
-            List<String> facultyPreferredDays = (preferredDaysStr != null && !preferredDaysStr.isEmpty()) ?
-                                                Arrays.asList(preferredDaysStr.split(",")).stream().map(String::trim).collect(Collectors.toList()) : Collections.emptyList();
-
-            List<Timeslot> availableTimeslotsForFaculty = new ArrayList<>();
-            List<Timeslot> otherTimeslotsForFaculty = new ArrayList<>();
-
-            for (Timeslot ts : allTimeslots) {
-                boolean isPreferredDay = facultyPreferredDays.isEmpty() || facultyPreferredDays.stream().anyMatch(day -> day.equalsIgnoreCase(ts.getDay()));
-                boolean isFacultyAvailable = !facultyBookedSlots.getOrDefault(faculty.getId(), Collections.emptySet()).contains(ts.getId());
-                boolean isSection1Available = !sectionBookedSlots.getOrDefault(section1.getId(), Collections.emptySet()).contains(ts.getId());
-                boolean isSection2Available = !sectionBookedSlots.getOrDefault(section2.getId(), Collections.emptySet()).contains(ts.getId());
-
-                boolean isDayAlreadyUsedForS1 = subjectFrequency > 1 && subjectSectionAssignedDays.getOrDefault(section1Key, Collections.emptySet()).contains(ts.getDay());
-                boolean isDayAlreadyUsedForS2 = subjectFrequency > 1 && subjectSectionAssignedDays.getOrDefault(section2Key, Collections.emptySet()).contains(ts.getDay());
-
-                if (isFacultyAvailable && isSection1Available && isSection2Available && !isDayAlreadyUsedForS1 && !isDayAlreadyUsedForS2) {
-                    if (isPreferredDay) {
-                        availableTimeslotsForFaculty.add(ts);
-                    } else {
-                        otherTimeslotsForFaculty.add(ts);
-                    }
-                }
-            }
-
-            List<Timeslot> combinedAvailableTimeslots = new ArrayList<>(availableTimeslotsForFaculty);
-            combinedAvailableTimeslots.addAll(otherTimeslotsForFaculty);
-
-            List<Timeslot> consecutiveSlots = findConsecutiveTimeslots(combinedAvailableTimeslots, duration, faculty.getId(), section1.getId(),
-                                                                       facultyBookedSlots, sectionBookedSlots, allTimeslots);
-
-            if (!consecutiveSlots.isEmpty()) {
-                Room selectedRoom = getAvailableLtRoom(combinedCapacityNeeded, consecutiveSlots, roomBookedSlots, allRooms);
-                if (selectedRoom != null) {
-                    assignLecture(subjectName, faculty, selectedRoom, Arrays.asList(section1, section2), consecutiveSlots, generatedTimetable,
-                                  facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultyLectureLoad);
-                    
-                    subjectSectionAssignedDays.computeIfAbsent(section1Key, k -> new HashSet<>()).add(consecutiveSlots.get(0).getDay());
-                    subjectSectionAssignedDays.computeIfAbsent(section2Key, k -> new HashSet<>()).add(consecutiveSlots.get(0).getDay());
-
-                    return true;
-                } else {
-                    skippedSlots.add(Map.of("subject", subjectName, "section1", section1.getName(), "section2", section2.getName(), "faculty", faculty.getName(), "reason", "No LT room available for combined sections."));
-                }
-            }
-            else {
-                skippedSlots.add(Map.of("subject", subjectName, "section1", section1.getName(), "section2", section2.getName(), "faculty", faculty.getName(), "reason", "No consecutive timeslots found for combined sections or day already used for this faculty."));
-            }
-        }
-        skippedSlots.add(Map.of("subject", subjectName, "section1", section1.getName(), "section2", section2.getName(), "reason", "No eligible faculty could assign the combined lecture."));
-        return false;
-    }
-
     private Optional<Section> findCombinableSection(Section currentSection, String subjectName, List<Section> allSections, Set<String> combinedSectionsTracked, Map<String, Integer> remainingLectures) {
         // Allow combining with any section within a window of 3 before and 3 after in the section order
         int window = 3;
@@ -511,7 +501,7 @@ public class TimetableService {
 
     private void assignLecture(String subjectName, Faculty faculty, Room room, List<Section> sections, List<Timeslot> timeslots,
                                List<Timetable> generatedTimetable, Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots,
-                               Map<Long, Set<Long>> roomBookedSlots, Map<Long, Integer> facultyLectureLoad) {
+                               Map<Long, Set<Long>> roomBookedSlots, FacultySelector facultySelector) {
 
         for (Timeslot ts : timeslots) {
             if (sections.size() > 1) {
@@ -523,11 +513,11 @@ public class TimetableService {
                 entry.setSection(null); // set section to null for combined
                 entry.setSections(new ArrayList<>(sections)); // setSections for combined
                 entry.setTimeslot(ts);
-                generatedTimetable.add(timetableRepository.save(entry));
+                generatedTimetable.add(entry);
                 // Update booked slots and faculty load for all sections
                 facultyBookedSlots.computeIfAbsent(faculty.getId(), k -> new HashSet<>()).add(ts.getId());
                 roomBookedSlots.computeIfAbsent(room.getId(), k -> new HashSet<>()).add(ts.getId());
-                facultyLectureLoad.merge(faculty.getId(), 1, Integer::sum);
+                facultySelector.booked(faculty, ts);
                 for (Section section : sections) {
                     sectionBookedSlots.computeIfAbsent(section.getId(), k -> new HashSet<>()).add(ts.getId());
                 }
@@ -540,12 +530,12 @@ public class TimetableService {
                     entry.setSection(section);
                     entry.setSections(Arrays.asList(section)); // set single section in sections list
                     entry.setTimeslot(ts);
-                    generatedTimetable.add(timetableRepository.save(entry));
+                    generatedTimetable.add(entry);
                     // Update booked slots and faculty load
                     facultyBookedSlots.computeIfAbsent(faculty.getId(), k -> new HashSet<>()).add(ts.getId());
                     sectionBookedSlots.computeIfAbsent(section.getId(), k -> new HashSet<>()).add(ts.getId());
                     roomBookedSlots.computeIfAbsent(room.getId(), k -> new HashSet<>()).add(ts.getId());
-                    facultyLectureLoad.merge(faculty.getId(), 1, Integer::sum);
+                    facultySelector.booked(faculty, ts);
                 }
             }
         }
@@ -555,49 +545,9 @@ public class TimetableService {
         return timetableRepository.findAll();
     }
 
-    private boolean tryAssignLectureWithFaculty(String subjectName, Section section, int duration, Faculty faculty,
-        List<Timeslot> allTimeslots, List<Room> allRooms, List<Timetable> generatedTimetable, List<Map<String, Object>> skippedSlots,
-        Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots, Map<Long, Set<Long>> roomBookedSlots, Map<Long, Integer> facultyLectureLoad,
-        int subjectFrequency, Map<String, Set<String>> subjectSectionAssignedDays) {
-        // This is a simplified version of tryAssignLecture for a single faculty
-        String subjectSectionKey = subjectName + "|" + section.getId();
-        String preferredDaysStr = faculty.getPreferredDays();
-        List<String> facultyPreferredDays = (preferredDaysStr != null && !preferredDaysStr.isEmpty()) ?
-            Arrays.asList(preferredDaysStr.split(",")).stream().map(String::trim).collect(Collectors.toList()) : Collections.emptyList();
-        List<Timeslot> availableTimeslotsForFaculty = new ArrayList<>();
-        List<Timeslot> otherTimeslotsForFaculty = new ArrayList<>();
-        for (Timeslot ts : allTimeslots) {
-            boolean isPreferredDay = facultyPreferredDays.isEmpty() || facultyPreferredDays.stream().anyMatch(day -> day.equalsIgnoreCase(ts.getDay()));
-            boolean isFacultyAvailable = !facultyBookedSlots.getOrDefault(faculty.getId(), Collections.emptySet()).contains(ts.getId());
-            boolean isSectionAvailable = !sectionBookedSlots.getOrDefault(section.getId(), Collections.emptySet()).contains(ts.getId());
-            boolean isDayAlreadyUsed = subjectFrequency > 1 && subjectSectionAssignedDays.getOrDefault(subjectSectionKey, Collections.emptySet()).contains(ts.getDay());
-            if (isFacultyAvailable && isSectionAvailable && !isDayAlreadyUsed) {
-                if (isPreferredDay) {
-                    availableTimeslotsForFaculty.add(ts);
-                } else {
-                    otherTimeslotsForFaculty.add(ts);
-                }
-            }
-        }
-        List<Timeslot> combinedAvailableTimeslots = new ArrayList<>(availableTimeslotsForFaculty);
-        combinedAvailableTimeslots.addAll(otherTimeslotsForFaculty);
-        List<Timeslot> consecutiveSlots = findConsecutiveTimeslots(combinedAvailableTimeslots, duration, faculty.getId(), section.getId(),
-            facultyBookedSlots, sectionBookedSlots, allTimeslots);
-        if (!consecutiveSlots.isEmpty()) {
-            Room selectedRoom = getAvailableRoom(section.getStudentCount(), consecutiveSlots, roomBookedSlots, allRooms);
-            if (selectedRoom != null) {
-                assignLecture(subjectName, faculty, selectedRoom, Arrays.asList(section), consecutiveSlots, generatedTimetable,
-                    facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultyLectureLoad);
-                subjectSectionAssignedDays.computeIfAbsent(subjectSectionKey, k -> new HashSet<>()).add(consecutiveSlots.get(0).getDay());
-                return true;
-            }
-        }
-        return false;
-    }
-
     private boolean tryAssignCombinedLectureWithFaculty_SubjectDayCheck(String subjectName, Section section1, Section section2, int duration, Faculty faculty,
         List<Timeslot> allTimeslots, List<Room> allRooms, List<Timetable> generatedTimetable, List<Map<String, Object>> skippedSlots,
-        Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots, Map<Long, Set<Long>> roomBookedSlots, Map<Long, Integer> facultyLectureLoad,
+        Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots, Map<Long, Set<Long>> roomBookedSlots, FacultySelector facultySelector,
         int subjectFrequency, Map<String, Set<String>> subjectSectionAssignedDays) {
         int combinedCapacityNeeded = section1.getStudentCount() + section2.getStudentCount();
         if (combinedCapacityNeeded > 180) return false;
@@ -635,7 +585,7 @@ public class TimetableService {
             }
             if (selectedRoom != null) {
                 assignLecture(subjectName, faculty, selectedRoom, Arrays.asList(section1, section2), consecutiveSlots, generatedTimetable,
-                    facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultyLectureLoad);
+                    facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultySelector);
                 subjectSectionAssignedDays.computeIfAbsent(section1Key, k -> new HashSet<>()).add(consecutiveSlots.get(0).getDay());
                 subjectSectionAssignedDays.computeIfAbsent(section2Key, k -> new HashSet<>()).add(consecutiveSlots.get(0).getDay());
                 return true;
@@ -646,7 +596,7 @@ public class TimetableService {
 
     private boolean tryAssignLectureWithFaculty_SubjectDayCheck(String subjectName, Section section, int duration, Faculty faculty,
         List<Timeslot> allTimeslots, List<Room> allRooms, List<Timetable> generatedTimetable, List<Map<String, Object>> skippedSlots,
-        Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots, Map<Long, Set<Long>> roomBookedSlots, Map<Long, Integer> facultyLectureLoad,
+        Map<Long, Set<Long>> facultyBookedSlots, Map<Long, Set<Long>> sectionBookedSlots, Map<Long, Set<Long>> roomBookedSlots, FacultySelector facultySelector,
         int subjectFrequency, Map<String, Set<String>> subjectSectionAssignedDays) {
         String subjectSectionKey = subjectName + "|" + section.getId();
         String preferredDaysStr = faculty.getPreferredDays();
@@ -675,7 +625,7 @@ public class TimetableService {
             Room selectedRoom = getAvailableRoom(section.getStudentCount(), consecutiveSlots, roomBookedSlots, allRooms);
             if (selectedRoom != null) {
                 assignLecture(subjectName, faculty, selectedRoom, Arrays.asList(section), consecutiveSlots, generatedTimetable,
-                    facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultyLectureLoad);
+                    facultyBookedSlots, sectionBookedSlots, roomBookedSlots, facultySelector);
                 subjectSectionAssignedDays.computeIfAbsent(subjectSectionKey, k -> new HashSet<>()).add(consecutiveSlots.get(0).getDay());
                 return true;
             }
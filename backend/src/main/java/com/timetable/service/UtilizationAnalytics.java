@@ -0,0 +1,190 @@
+package com.timetable.service;
+
+import com.timetable.model.Faculty;
+import com.timetable.model.Room;
+import com.timetable.model.Timeslot;
+import com.timetable.model.TimetableReadRow;
+import com.timetable.repository.FacultyRepository;
+import com.timetable.repository.RoomRepository;
+import com.timetable.repository.TimeslotRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+// Room and faculty utilization of the published timetable. The aggregates are kept up to date from the read model
+// rows of each publish: only rows that were added, removed or changed since the previous run are applied, and a
+// report never looks at individual timetable rows.
+@Component
+public class UtilizationAnalytics {
+    @Autowired
+    private TimetableReadModel timetableReadModel;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    @Autowired
+    private TimeslotRepository timeslotRepository;
+
+    // Rows the aggregates currently reflect
+    private final Map<TimetableReadRow.Key, TimetableReadRow> applied = new HashMap<>();
+    private final Map<Long, Usage> roomUsage = new HashMap<>();
+    private final Map<Long, Usage> facultyUsage = new HashMap<>();
+    // Number of rooms / faculty busy in each timeslot
+    private final Map<Long, Integer> busyRoomsBySlot = new HashMap<>();
+    private final Map<Long, Integer> busyFacultyBySlot = new HashMap<>();
+    private String runId = "none";
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        TimetablePublishedEvent current = timetableReadModel.current();
+        apply(current.runId(), current.rows());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPublished(TimetablePublishedEvent event) {
+        apply(event.runId(), event.rows());
+    }
+
+    private synchronized void apply(String publishedRunId, List<TimetableReadRow> rows) {
+        Map<TimetableReadRow.Key, TimetableReadRow> stale = new HashMap<>(applied);
+        for (TimetableReadRow row : rows) {
+            TimetableReadRow.Key key = new TimetableReadRow.Key(row.getTimetableId(), row.getSectionId());
+            TimetableReadRow previous = stale.remove(key);
+            if (row.equals(previous)) {
+                continue;
+            }
+            if (previous != null) {
+                count(previous, -1);
+            }
+            count(row, 1);
+            applied.put(key, row);
+        }
+        for (Map.Entry<TimetableReadRow.Key, TimetableReadRow> removed : stale.entrySet()) {
+            count(removed.getValue(), -1);
+            applied.remove(removed.getKey());
+        }
+        runId = publishedRunId;
+    }
+
+    private void count(TimetableReadRow row, int delta) {
+        Usage room = roomUsage.computeIfAbsent(row.getRoomId(), id -> new Usage());
+        if (room.count(row.getTimeslotId(), row.getDay(), delta)) {
+            busyRoomsBySlot.merge(row.getTimeslotId(), delta, Integer::sum);
+        }
+        // Every section in the room adds its headcount to the seats filled in that hour
+        room.seatsFilled += (long) delta * row.getStudentCount();
+
+        Usage faculty = facultyUsage.computeIfAbsent(row.getFacultyId(), id -> new Usage());
+        if (faculty.count(row.getTimeslotId(), row.getDay(), delta)) {
+            busyFacultyBySlot.merge(row.getTimeslotId(), delta, Integer::sum);
+        }
+    }
+
+    public Map<String, Object> report() {
+        // Reference tables are small; they give the denominators and the heatmap axes
+        List<Room> rooms = roomRepository.findAll();
+        List<Faculty> faculties = facultyRepository.findAll();
+        List<Timeslot> timeslots = timeslotRepository.findAll();
+        List<String> days = TimetableGridViews.orderedDays(timeslots);
+        List<String> periods = TimetableGridViews.orderedPeriods(timeslots);
+
+        synchronized (this) {
+            List<Map<String, Object>> roomReport = new ArrayList<>();
+            for (Room room : rooms) {
+                Usage usage = roomUsage.getOrDefault(room.getId(), Usage.NONE);
+                int occupied = usage.busySlots();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("roomId", room.getId());
+                entry.put("roomNumber", room.getRoomNumber());
+                entry.put("roomType", room.getRoomType());
+                entry.put("capacity", room.getCapacity());
+                entry.put("occupiedSlots", occupied);
+                entry.put("occupancy", ratio(occupied, timeslots.size()));
+                entry.put("seatFill", ratio(usage.seatsFilled, (long) room.getCapacity() * occupied));
+                roomReport.add(entry);
+            }
+
+            List<Map<String, Object>> facultyReport = new ArrayList<>();
+            for (Faculty faculty : faculties) {
+                Usage usage = facultyUsage.getOrDefault(faculty.getId(), Usage.NONE);
+                Map<String, Integer> perDay = new LinkedHashMap<>();
+                days.forEach(day -> perDay.put(day, usage.slotsByDay.getOrDefault(day, 0)));
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("facultyId", faculty.getId());
+                entry.put("name", faculty.getName());
+                entry.put("weeklyLoad", usage.busySlots());
+                entry.put("perDay", perDay);
+                facultyReport.add(entry);
+            }
+
+            Map<String, Integer> dayIndex = indexOf(days);
+            Map<String, Integer> periodIndex = indexOf(periods);
+            int[][] idleRooms = new int[days.size()][periods.size()];
+            int[][] idleFaculty = new int[days.size()][periods.size()];
+            for (Timeslot ts : timeslots) {
+                int d = dayIndex.get(ts.getDay());
+                int p = periodIndex.get(ts.getPeriod());
+                idleRooms[d][p] = rooms.size() - busyRoomsBySlot.getOrDefault(ts.getId(), 0);
+                idleFaculty[d][p] = faculties.size() - busyFacultyBySlot.getOrDefault(ts.getId(), 0);
+            }
+            Map<String, Object> heatmap = new LinkedHashMap<>();
+            heatmap.put("days", days);
+            heatmap.put("periods", periods);
+            heatmap.put("idleRooms", idleRooms);
+            heatmap.put("idleFaculty", idleFaculty);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("runId", runId);
+            report.put("rooms", roomReport);
+            report.put("faculty", facultyReport);
+            report.put("idleHeatmap", heatmap);
+            return report;
+        }
+    }
+
+    private static double ratio(long part, long whole) {
+        return whole == 0 ? 0 : Math.round(1000.0 * part / whole) / 1000.0;
+    }
+
+    private static Map<String, Integer> indexOf(List<String> values) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            index.put(values.get(i), i);
+        }
+        return index;
+    }
+
+    // Busy timeslots of one room or faculty member. A slot can hold several rows (one per section of a combined
+    // lecture), so rows are counted per slot and the slot only turns busy or free on the first or last of them.
+    private static final class Usage {
+        static final Usage NONE = new Usage();
+
+        final Map<Long, Integer> rowsBySlot = new HashMap<>();
+        final Map<String, Integer> slotsByDay = new HashMap<>();
+        long seatsFilled;
+
+        // True when the slot went from free to busy or back
+        boolean count(Long timeslotId, String day, int delta) {
+            int rows = rowsBySlot.merge(timeslotId, delta, Integer::sum);
+            if (rows == 0) {
+                rowsBySlot.remove(timeslotId);
+            }
+            boolean turned = delta > 0 ? rows == 1 : rows == 0;
+            if (turned) {
+                slotsByDay.merge(day, delta, Integer::sum);
+            }
+            return turned;
+        }
+
+        int busySlots() {
+            return rowsBySlot.size();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+-- Baseline schema: the tables that existed before schema migrations were introduced, as ddl-auto=update created them.
+-- Databases created before migrations existed are baselined at this version instead of running it, so tables added
+-- later belong in their own migrations.
+
+create table faculty (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    preferred_days varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table room (
+    id bigint not null auto_increment,
+    room_number varchar(255) not null,
+    room_type varchar(255) not null,
+    capacity integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table section (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    student_count integer not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table timeslot (
+    id bigint not null auto_increment,
+    day varchar(255) not null,
+    start_time time(6) not null,
+    end_time time(6) not null,
+    period varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table timetable (
+    id bigint not null auto_increment,
+    faculty_id bigint not null,
+    section_id bigint,
+    room_id bigint not null,
+    timeslot_id bigint not null,
+    subject_name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table timetable_sections (
+    timetable_id bigint not null,
+    section_id bigint not null
+) engine=InnoDB;
+
+alter table timetable add constraint FK6mqppu9napqh90m0mwjgy2hn5 foreign key (faculty_id) references faculty (id);
+alter table timetable add constraint FKog52wc8yod6g56621vygalt2f foreign key (section_id) references section (id);
+alter table timetable add constraint FKp305jq1ghef0c43cgoy8o6ypr foreign key (room_id) references room (id);
+alter table timetable add constraint FK4mnwug836ilhe0u9ll4tqe65f foreign key (timeslot_id) references timeslot (id);
+alter table timetable_sections add constraint FK97e8f3iqdu36u0c38bd16cluh foreign key (section_id) references section (id);
+alter table timetable_sections add constraint FKr51me3p7tcxfwsi33n3888rnk foreign key (timetable_id) references timetable (id);
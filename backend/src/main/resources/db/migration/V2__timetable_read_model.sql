@@ -0,0 +1,57 @@
+-- Read model of the published timetable: one row per section per lecture hour, written by each publish.
+
+create table timetable_read_model (
+    timetable_id bigint not null,
+    section_id bigint not null,
+    section_name varchar(255) not null,
+    student_count integer not null,
+    subject_name varchar(255) not null,
+    sections_label varchar(1000) not null,
+    faculty_id bigint not null,
+    faculty_name varchar(255) not null,
+    room_id bigint not null,
+    room_number varchar(255) not null,
+    room_type varchar(255) not null,
+    room_capacity integer not null,
+    timeslot_id bigint not null,
+    day varchar(255) not null,
+    day_index integer not null,
+    period varchar(255) not null,
+    start_time time(6) not null,
+    end_time time(6) not null,
+    primary key (timetable_id, section_id)
+) engine=InnoDB;
+
+create index idx_read_model_section on timetable_read_model (section_id, day_index, start_time);
+create index idx_read_model_faculty on timetable_read_model (faculty_id, day_index, start_time);
+create index idx_read_model_room on timetable_read_model (room_id, day_index, start_time);
+
+-- Backfill from the timetable already published. A lecture's sections come from timetable_sections, or from its
+-- single section column when it has no links.
+insert into timetable_read_model
+    (timetable_id, section_id, section_name, student_count, subject_name, sections_label, faculty_id, faculty_name,
+     room_id, room_number, room_type, room_capacity, timeslot_id, day, day_index, period, start_time, end_time)
+select t.id, s.id, s.name, s.student_count, t.subject_name, labels.sections_label, f.id, f.name,
+       r.id, r.room_number, r.room_type, r.capacity, ts.id, ts.day,
+       case lower(ts.day)
+           when 'monday' then 0 when 'tuesday' then 1 when 'wednesday' then 2 when 'thursday' then 3
+           when 'friday' then 4 when 'saturday' then 5 when 'sunday' then 6 else 7
+       end,
+       ts.period, ts.start_time, ts.end_time
+from timetable t
+join (
+    select t2.id as timetable_id, coalesce(l.section_id, t2.section_id) as section_id
+    from timetable t2
+    left join timetable_sections l on l.timetable_id = t2.id
+) attending on attending.timetable_id = t.id
+join (
+    select t3.id as timetable_id, group_concat(s3.name order by s3.name separator ', ') as sections_label
+    from timetable t3
+    left join timetable_sections l3 on l3.timetable_id = t3.id
+    join section s3 on s3.id = coalesce(l3.section_id, t3.section_id)
+    group by t3.id
+) labels on labels.timetable_id = t.id
+join section s on s.id = attending.section_id
+join faculty f on f.id = t.faculty_id
+join room r on r.id = t.room_id
+join timeslot ts on ts.id = t.timeslot_id;
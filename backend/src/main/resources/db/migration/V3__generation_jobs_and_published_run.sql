@@ -0,0 +1,32 @@
+-- Generation job queue and the single published_run row that serializes publishes across instances.
+-- "if not exists": databases that ran with ddl-auto=update after these entities were added already have the tables.
+
+create table if not exists generation_job (
+    id bigint not null auto_increment,
+    status varchar(255) not null,
+    request LONGTEXT not null,
+    time_budget_ms bigint,
+    persist_partial bit not null,
+    owner varchar(255),
+    lease_expires_at datetime(6),
+    attempts integer not null,
+    result LONGTEXT,
+    error varchar(1000),
+    created_at datetime(6) not null,
+    updated_at datetime(6) not null,
+    primary key (id),
+    index idx_generation_job_status (status, lease_expires_at)
+) engine=InnoDB;
+
+create table if not exists published_run (
+    id bigint not null,
+    run_id varchar(255) not null,
+    fingerprint varchar(255),
+    published_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- The publish lock is taken on this row, so it must exist before the first publish
+insert into published_run (id, run_id, fingerprint, published_at)
+select 1, uuid(), null, current_timestamp(6) from dual
+where not exists (select 1 from published_run where id = 1);
@@ -0,0 +1,4 @@
+-- Perf profile only (H2 in MySQL mode): H2 stores the migrations' LONGTEXT columns as VARCHAR, while Hibernate
+-- validates @Lob columns as CLOB like MySQL's LONGTEXT. Align the types so schema validation runs as in production.
+alter table generation_job alter column request set data type character large object;
+alter table generation_job alter column result set data type character large object;
@@ -260,6 +260,24 @@ function removeFromQueue(index) {
   updateSubjectQueue();
 }
 
+// Run id of the generation in progress, if any
+let activeRunId = null;
+
+function showGenerating(message) {
+  showLoading(`${message} <button onclick="cancelGeneration()" class="btn btn-sm btn-secondary ml-3">Cancel</button>`);
+}
+
+// Stops the running generation on the server; its request then returns with what was scheduled so far
+function cancelGeneration() {
+  if (activeRunId) {
+    fetch(`${API_BASE_URL}/api/generation-runs/${encodeURIComponent(activeRunId)}`, { method: 'DELETE', keepalive: true })
+      .catch(error => console.error('Error cancelling generation:', error));
+  }
+}
+
+// Leaving the page abandons the request; don't leave the server solving for nobody
+window.addEventListener('pagehide', cancelGeneration);
+
 // Generate timetable
 $('#generateTimetable').on('click', async function() {
   if (subjectQueue.length === 0) {
@@ -267,54 +285,67 @@ $('#generateTimetable').on('click', async function() {
     return;
   }
   
-  showLoading('Generating timetable...');
-  // Transform subjectQueue into backend-expected format
-  const expandedSubjects = [];
+  showGenerating('Generating timetable...');
+  // One record per subject-section with its weekly lecture count; the backend no longer needs one entry per lecture
+  const demands = [];
   subjectQueue.forEach(subject => {
     // The `subject.sections` array is now already resolved based on its scope
-    const sectionsToProcessForBackend = subject.sections; 
-
-    // Create a separate entry for each section associated with this subject
-    if (sectionsToProcessForBackend.length > 0) {
-        sectionsToProcessForBackend.forEach(sectionId => {
-            // Create 'frequency' number of entries for each section
-            for (let i = 0; i < subject.lecturesPerWeek; i++) {
-                expandedSubjects.push({
-                    subjectName: subject.name,
-                    facultyIds: subject.faculty,
-                    duration: subject.slotDuration, // Send original slot duration, not totalDuration
-                    frequency: subject.lecturesPerWeek, // Send original lectures per week
-                    sectionId: sectionId
-                });
-            }
-        });
-    } else {
-        // Handle cases where a subject might somehow have no sections after resolution (e.g., error in selection/data)
-        // This case should ideally not happen if section selection is enforced, but good for robustness.
-        expandedSubjects.push({
-            subjectName: subject.name,
-            facultyIds: subject.faculty,
-            duration: subject.slotDuration,
-            frequency: subject.lecturesPerWeek,
-            sectionId: null // Indicate no specific section, backend should handle as a skipped slot
-        });
+    subject.sections.forEach(sectionId => {
+      demands.push({
+        subjectName: subject.name,
+        sectionId: Number(sectionId),
+        duration: Number(subject.slotDuration), // Send original slot duration, not totalDuration
+        lecturesPerWeek: Number(subject.lecturesPerWeek),
+        facultyIds: subject.faculty.map(Number)
+      });
+    });
+  });
+
+  // Follow solver progress while the request is running, so a long run does not look stuck
+  const runId = crypto.randomUUID();
+  activeRunId = runId;
+  const progressEvents = new EventSource(`${API_BASE_URL}/api/generation-runs/${runId}/events`);
+  progressEvents.addEventListener('progress', event => {
+    const progress = JSON.parse(event.data);
+    showGenerating(`Generating timetable... pass ${progress.iteration}: ${progress.placed} lectures placed, ${progress.remaining} remaining`);
+  });
+  progressEvents.addEventListener('phase', event => {
+    const phase = JSON.parse(event.data).phase;
+    if (phase === 'PERSISTING') {
+      showLoading('Saving timetable...');
+    } else if (phase === 'COMPLETED' || phase === 'FAILED') {
+      progressEvents.close();
     }
   });
+  // Give the stream a moment to attach so the first events are not missed; never block generation on it
+  await new Promise(resolve => {
+    progressEvents.onopen = resolve;
+    setTimeout(resolve, 1000);
+  });
 
   try {
-    const response = await fetch(`${API_BASE_URL}/api/generate-timetable`, {
+    const response = await fetch(`${API_BASE_URL}/api/v2/generate-timetable?runId=${encodeURIComponent(runId)}`, {
       method: 'POST',
       headers: {
         'Content-Type': 'application/json',
       },
-      body: JSON.stringify(expandedSubjects),
+      body: JSON.stringify({ subjects: demands }),
     });
 
     const result = await response.json();
 
     if (response.ok) {
-      showSuccess('Timetable generated successfully!');
-      displayTimetable(result.timetable);
+      const stopped = result.stopReason === 'CANCELLED' ? 'was cancelled' : 'ran out of time';
+      if (!result.partial) {
+        showSuccess('Timetable generated successfully!');
+        displayTimetable();
+      } else if (result.persisted) {
+        showAppMessage(`<strong>Partial timetable:</strong> generation ${stopped} (${result.stopReason}); the lectures scheduled so far were saved.`, 'warning', true);
+        displayTimetable();
+      } else {
+        // Nothing was published, so the grid on screen is still the previous timetable
+        showAppMessage(`<strong>Not saved:</strong> generation ${stopped} (${result.stopReason}) before a complete timetable was found; the published timetable is unchanged.`, 'warning', true);
+      }
 
       // Display skipped slots if any
       const skippedSlotsDiv = $('#skippedSlotsMessages');
@@ -332,33 +363,33 @@ $('#generateTimetable').on('click', async function() {
   } catch (error) {
     console.error('Error generating timetable:', error);
     showError('Failed to generate timetable. Please try again later.');
+  } finally {
+    activeRunId = null;
+    progressEvents.close();
   }
 });
 
-// Minimal displayTimetable implementation to render timetable in the UI
-function displayTimetable(timetable) {
+// Render the published timetable from the server-side section grids (day x period, already pivoted)
+async function displayTimetable() {
   const timetableDiv = $('#timetable');
   timetableDiv.empty();
-  if (!Array.isArray(timetable) || timetable.length === 0) {
+
+  let grids = [];
+  try {
+    const response = await fetch(`${API_BASE_URL}/api/timetable/grid/sections`);
+    grids = await response.json();
+  } catch (error) {
+    console.error('Error fetching timetable grids:', error);
+  }
+  if (!Array.isArray(grids) || grids.length === 0) {
     timetableDiv.append('<div class="alert alert-info">No timetable generated.</div>');
     return;
   }
 
-  // Get all unique individual sections from timetable (not groups)
-  const sectionSet = new Set();
-  timetable.forEach(entry => {
-    if (Array.isArray(entry.sections)) {
-      entry.sections.forEach(s => sectionSet.add(s.name));
-    } else if (entry.section?.name) {
-      sectionSet.add(entry.section.name);
-    }
-  });
-  const sectionList = Array.from(sectionSet).sort();
-
   // Render a single searchable dropdown for section selection
   let dropdownHtml = `<div style="margin-bottom:1em"><label for='sectionSelect'><b>Select section to view timetable:</b></label> <select id='sectionSelect' style='min-width:200px; margin-left:8px;'><option value=''>-- Select Section --</option>`;
-  sectionList.forEach(sec => {
-    dropdownHtml += `<option value="${sec}">${sec}</option>`;
+  grids.forEach((grid, index) => {
+    dropdownHtml += `<option value="${index}">${grid.name}</option>`;
   });
   dropdownHtml += `</select></div>`;
   timetableDiv.append(dropdownHtml);
@@ -368,61 +399,35 @@ function displayTimetable(timetable) {
     $('#sectionSelect').select2({ placeholder: 'Select section', allowClear: true });
   }
 
-  // Table rendering function for a selected section
-  function renderSectionTable(sectionName) {
+  // Table rendering function for a selected section grid
+  function renderSectionTable(grid) {
     $('#timetableTable').remove();
-    if (!sectionName) return;
-    // Find all entries where this section is present (either as individual or in a group)
-    const filtered = timetable.filter(entry => {
-      if (Array.isArray(entry.sections)) {
-        return entry.sections.some(s => s.name === sectionName);
-      } else if (entry.section?.name) {
-        return entry.section.name === sectionName;
-      }
-      return false;
-    });
-    if (filtered.length === 0) {
-      timetableDiv.append(`<div id='timetableTable'><div class='alert alert-warning'>No classes found for section <b>${sectionName}</b>.</div></div>`);
-      return;
-    }
-    // Sort by day (Monday-Saturday), then start time
-    const dayOrder = ['Monday','Tuesday','Wednesday','Thursday','Friday','Saturday','Sunday'];
-    filtered.sort((a, b) => {
-      const dayA = a.timeslot?.day || '';
-      const dayB = b.timeslot?.day || '';
-      const d = dayOrder.indexOf(dayA) - dayOrder.indexOf(dayB);
-      if (d !== 0) return d;
-      return (a.timeslot?.start_time || a.timeslot?.startTime || '').localeCompare(b.timeslot?.start_time || b.timeslot?.startTime || '');
-    });
+    if (!grid) return;
     let html = `<div id='timetableTable'><table class=\"timetable-table\">
       <thead>
         <tr>
-          <th>Subject</th>
-          <th>Faculty</th>
-          <th>Sections</th>
-          <th>Room</th>
-          <th>Day</th>
-          <th>Start Time</th>
-          <th>End Time</th>
-        </tr>
+          <th>Day</th>`;
+    grid.periods.forEach(period => {
+      html += `<th>${period}</th>`;
+    });
+    html += `</tr>
       </thead>
       <tbody>`;
-    filtered.forEach(entry => {
-      let sectionNames = '';
-      if (Array.isArray(entry.sections)) {
-        sectionNames = entry.sections.map(s => s.name).join(', ');
-      } else if (entry.section?.name) {
-        sectionNames = entry.section.name;
-      }
-      html += `<tr>
-        <td>${entry.subjectName || ''}</td>
-        <td>${entry.faculty?.name || ''}</td>
-        <td>${sectionNames}</td>
-        <td>${entry.room?.roomNumber || entry.room?.name || ''}</td>
-        <td>${entry.timeslot?.day || ''}</td>
-        <td>${entry.timeslot?.start_time || entry.timeslot?.startTime || ''}</td>
-        <td>${entry.timeslot?.end_time || entry.timeslot?.endTime || ''}</td>
-      </tr>`;
+    grid.days.forEach((day, d) => {
+      html += `<tr><td><b>${day}</b></td>`;
+      grid.cells[d].forEach(cell => {
+        if (!cell) {
+          html += '<td></td>';
+          return;
+        }
+        html += `<td>
+          <div><b>${cell.subjectName || ''}</b></div>
+          <div>${cell.facultyName || ''}</div>
+          <div>${cell.roomNumber || ''}</div>
+          <div>${cell.sections || ''}</div>
+        </td>`;
+      });
+      html += '</tr>';
     });
     html += '</tbody></table></div>';
     timetableDiv.append(html);
@@ -430,7 +435,7 @@ function displayTimetable(timetable) {
 
   // Only show timetable after selecting a section
   $('#sectionSelect').on('change', function() {
-    renderSectionTable(this.value);
+    renderSectionTable(this.value === '' ? null : grids[Number(this.value)]);
   });
 }
 